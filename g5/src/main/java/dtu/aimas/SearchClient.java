@@ -1,9 +1,11 @@
 package dtu.aimas;
 
 import dtu.aimas.communication.IO;
+import dtu.aimas.communication.Stopwatch;
 import dtu.aimas.config.Configuration;
 import dtu.aimas.parsers.ArgumentParser;
 import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.search.DistanceTableFile;
 import dtu.aimas.search.Problem;
 
 import java.util.Arrays;
@@ -18,6 +20,8 @@ public class SearchClient
         
         var result = IO.initializeServerCommunication(CourseLevelParser.Instance)
             .map(SearchClient::logStart)
+            .map(SearchClient::removeImmovableBoxes)
+            .map(SearchClient::loadDistances)
             .flatMap(p -> SearchClient.config.getSolver().solve(p))
             .flatMap(IO::sendSolutionToServer);
 
@@ -49,6 +53,21 @@ public class SearchClient
         IO.debug(configuration);
     }
 
+    private static Problem removeImmovableBoxes(Problem p){
+        var reduced = p.withoutImmovableBoxes();
+        if (reduced != p) IO.debug("%d immovable boxes turned into walls", p.boxes.size() - reduced.boxes.size());
+        return reduced;
+    }
+
+    private static Problem loadDistances(Problem p){
+        var directory = config.getDistanceCache();
+        if (directory == null) return p;
+        var start = Stopwatch.getTimeMs();
+        var distances = DistanceTableFile.loadOrCompute(directory, p.walls);
+        IO.debug("distance table ready in %d ms", Stopwatch.getTimeSinceMs(start));
+        return p.withDistances(distances);
+    }
+
     private static Problem logStart(Problem p){
         IO.debug("Problem:\n%s", p.toString()); 
         return p;
@@ -32,6 +32,6 @@ public class Agent extends DomainObject {
 
     @Override
     public Agent clone() {
-        return new Agent(new Position(pos.row, pos.col), color, label);
+        return new Agent(pos, color, label);
     }
 }
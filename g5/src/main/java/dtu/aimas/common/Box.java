@@ -24,6 +24,6 @@ public class Box extends DomainObject {
     }
 
     public Box clone() {
-        return new Box(new Position(pos.row, pos.col), color, label);
+        return new Box(pos, color, label);
     }
 }
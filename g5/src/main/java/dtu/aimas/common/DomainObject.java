@@ -4,9 +4,9 @@ package dtu.aimas.common;
 // It exists to allow the use of polymorphism in various parts of the code, when iterating over agents and boxes.
 public class DomainObject {
 
-    public Position pos;
-    public Color color;
-    public char label;
+    public final Position pos;
+    public final Color color;
+    public final char label;
     
     public DomainObject(Position pos, Color color, char label) {
         this.pos = pos;
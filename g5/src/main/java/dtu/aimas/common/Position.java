@@ -1,14 +1,53 @@
 package dtu.aimas.common;
 
-import java.util.Objects;
+// Immutable grid coordinate. Positions inside the first INTERNED rows and columns are interned, so Position.of and
+// fromCell return the same instance for a cell, and positions can be shared between states and threads.
+public final class Position {
+    private static final int INTERNED = 128;
+    // Filled on first use, a race only creates an equal instance that is dropped
+    private static final Position[] TABLE = new Position[INTERNED * INTERNED];
 
-public class Position {
-    public int row;
-    public int col;
+    public final int row;
+    public final int col;
+    private final int cell;
 
     public Position(int row, int col) {
         this.row = row;
         this.col = col;
+        this.cell = cell(row, col);
+    }
+
+    public static Position of(int row, int col) {
+        if (row < 0 || row >= INTERNED || col < 0 || col >= INTERNED) return new Position(row, col);
+        var index = row * INTERNED + col;
+        var position = TABLE[index];
+        if (position == null) {
+            position = new Position(row, col);
+            TABLE[index] = position;
+        }
+        return position;
+    }
+
+    // Packed cell id: row in the upper 16 bits, column in the lower 16 bits.
+    // Independent of the level width, so states can be packed without a problem at hand.
+    public static int cell(int row, int col) {
+        return row << 16 | (col & 0xFFFF);
+    }
+
+    public static int rowOf(int cell) {
+        return cell >> 16;
+    }
+
+    public static int colOf(int cell) {
+        return (short) cell;
+    }
+
+    public static Position fromCell(int cell) {
+        return of(rowOf(cell), colOf(cell));
+    }
+
+    public int cell() {
+        return cell;
     }
 
     public String toSimpleString() {
@@ -17,15 +56,13 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return cell;
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == this) return true;
-        if(!(o instanceof Position)) return false;
-        Position c = (Position) o;
-        return c.row == this.row && c.col == this.col;
+        return o instanceof Position other && other.cell == cell;
     }
 
     @Override
@@ -29,6 +29,7 @@ public class IO {
     private final static Path TargetClassesPath = Paths.get(TargetsPath.toString(), "classes");
 
     public final static Path LogDir = Paths.get(TargetsPath.toString(), "logs");
+    public final static Path DistanceDir = Paths.get(TargetsPath.toString(), "distances");
     public final static Path LevelDir = Paths.get(TargetClassesPath.toString(), "levels");
     public final static Path CompLevelDir = Paths.get(LevelDir.toString(), "complevels");
 
@@ -0,0 +1,67 @@
+package dtu.aimas.config;
+
+import java.util.List;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.errors.InvalidArgument;
+import dtu.aimas.errors.UnknownArguments;
+import dtu.aimas.search.solvers.graphsearch.AnytimeWAStar;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+
+// Anytime weighted A*, improving its plan until the time limit.
+// Tokens: "w:<weight>" to start from, "time:<ms>" for the time limit, a cost and "od" for operator decomposition.
+public class AnytimeConfigOption extends ConfigOption {
+    public static final String OptionName = "anytime";
+    public String getOptionName() {
+        return OptionName;
+    }
+
+    public static final long DEFAULT_TIME_MS = 10_000;
+    private static final String WeightPrefix = "w:";
+    private static final String TimePrefix = "time:";
+
+    private double weight = AnytimeWAStar.DEFAULT_WEIGHT;
+    private long timeMs = DEFAULT_TIME_MS;
+    private Cost cost = new DistanceSumCost();
+    private boolean operatorDecomposition = false;
+
+    public void apply(Configuration conf) {
+        var solver = new AnytimeWAStar(cost, weight, timeMs);
+        solver.setOperatorDecomposition(operatorDecomposition);
+        conf.setSolver(solver);
+    }
+
+    public Result<ConfigOption> bindInner(List<String> tokens) {
+        for(var token: tokens){
+            var parsedCost = parseCost(token);
+            if (parsedCost.isPresent()) {
+                cost = parsedCost.get();
+                continue;
+            }
+
+            switch(token){
+                case "od" -> operatorDecomposition = true;
+                default -> {
+                    try {
+                        if (token.startsWith(WeightPrefix)) {
+                            weight = Double.parseDouble(token.substring(WeightPrefix.length()));
+                            if (weight < 1)
+                                return Result.error(new InvalidArgument("Weight must be at least 1: " + token));
+                        } else if (token.startsWith(TimePrefix)) {
+                            timeMs = Long.parseLong(token.substring(TimePrefix.length()));
+                            if (timeMs <= 0)
+                                return Result.error(new InvalidArgument("Time limit must be positive: " + token));
+                        } else {
+                            return Result.error(new UnknownArguments(tokens));
+                        }
+                    } catch (NumberFormatException e) {
+                        return Result.error(new InvalidArgument("Not a number: " + token));
+                    }
+                }
+            }
+        }
+
+        return Result.ok(this);
+    }
+}
@@ -2,11 +2,19 @@ package dtu.aimas.config;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 import dtu.aimas.common.Result;
 import dtu.aimas.errors.InvalidArgument;
 import dtu.aimas.errors.UnknownArguments;
+import dtu.aimas.search.solvers.heuristics.BoxTransportCost;
+import dtu.aimas.search.solvers.heuristics.CorridorBoundCost;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+import dtu.aimas.search.solvers.heuristics.GoalCount;
+import dtu.aimas.search.solvers.heuristics.GuidedDistanceSumCost;
+import dtu.aimas.search.solvers.heuristics.MAAdmissibleCost;
 
 public abstract class ConfigOption {
     private static final Map<String, Supplier<ConfigOption>> options = ConfigOptionLoader.getOptions();
@@ -35,4 +43,17 @@ public abstract class ConfigOption {
 
         return option.flatMap(o -> o.bindInner(tokens));
     }
+
+    // The cost named by a "cost:<name>" token shared by the search options, empty for any other token
+    protected static Optional<Cost> parseCost(String token) {
+        return switch(token){
+            case "cost:distance" -> Optional.of(new DistanceSumCost());
+            case "cost:guided" -> Optional.of(new GuidedDistanceSumCost());
+            case "cost:admissible" -> Optional.of(new MAAdmissibleCost());
+            case "cost:goalcount" -> Optional.of(new GoalCount());
+            case "cost:transport" -> Optional.of(new BoxTransportCost());
+            case "cost:corridor" -> Optional.of(new CorridorBoundCost());
+            default -> Optional.empty();
+        };
+    }
 }
@@ -5,14 +5,18 @@ import java.util.function.Supplier;
 
 public class ConfigOptionLoader {
     public static Map<String, Supplier<ConfigOption>> getOptions(){
-        return Map.of(
-                BFSConfigOption.OptionName, BFSConfigOption::new,
-                DFSConfigOption.OptionName, DFSConfigOption::new,
-                CBSConfigOption.OptionName, CBSConfigOption::new,
-                BlackboardConfigOption.OptionName, BlackboardConfigOption::new,
-                SafeIntervalConfigOption.OptionName, SafeIntervalConfigOption::new,
-                SafePathConfigOption.OptionName, SafePathConfigOption::new,
-                LoggingConfigOption.OptionName, LoggingConfigOption::new
+        return Map.ofEntries(
+                Map.entry(BFSConfigOption.OptionName, BFSConfigOption::new),
+                Map.entry(DFSConfigOption.OptionName, DFSConfigOption::new),
+                Map.entry(CBSConfigOption.OptionName, CBSConfigOption::new),
+                Map.entry(BlackboardConfigOption.OptionName, BlackboardConfigOption::new),
+                Map.entry(SafeIntervalConfigOption.OptionName, SafeIntervalConfigOption::new),
+                Map.entry(SafePathConfigOption.OptionName, SafePathConfigOption::new),
+                Map.entry(MemoryBoundedConfigOption.OptionName, MemoryBoundedConfigOption::new),
+                Map.entry(LoggingConfigOption.OptionName, LoggingConfigOption::new),
+                Map.entry(DistanceCacheConfigOption.OptionName, DistanceCacheConfigOption::new),
+                Map.entry(SpillConfigOption.OptionName, SpillConfigOption::new),
+                Map.entry(AnytimeConfigOption.OptionName, AnytimeConfigOption::new)
         );
     }
 }
@@ -8,6 +8,8 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
+import java.nio.file.Path;
+
 @Getter @Setter
 public class Configuration {
     public Configuration(){
@@ -25,6 +27,8 @@ public class Configuration {
 
     private LogLevel logLevel;
     private Boolean debugServerMessages;
+    // directory of stored distance tables, or null to compute distances lazily every run
+    private Path distanceCache;
 
     public void configureIO(){
         IO.logLevel = logLevel;
@@ -33,11 +37,12 @@ public class Configuration {
 
     @Override
     public String toString() {
-        return String.format("Configuration{Solver=%s; GroupName=%s; LogLevel=%s; DebugServerMessages=%b}", 
+        return String.format("Configuration{Solver=%s; GroupName=%s; LogLevel=%s; DebugServerMessages=%b; DistanceCache=%s}", 
             solver.getClass().getSimpleName(),
             groupName,
             logLevel.name(),
-            debugServerMessages
+            debugServerMessages,
+            distanceCache
         );
     }
 }
@@ -0,0 +1,42 @@
+package dtu.aimas.config;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.InvalidArgument;
+import dtu.aimas.errors.UnknownArguments;
+
+// Stores the distance table of every level on disk and maps it on later runs on the same walls.
+// Tokens: "dir:<path>" for the directory of the tables, which defaults to a folder next to the logs.
+public class DistanceCacheConfigOption extends ConfigOption {
+    public static final String OptionName = "distcache";
+    public String getOptionName() {
+        return OptionName;
+    }
+
+    private static final String DirectoryPrefix = "dir:";
+
+    private Path directory = IO.DistanceDir;
+
+    public void apply(Configuration conf) {
+        conf.setDistanceCache(directory);
+    }
+
+    public Result<ConfigOption> bindInner(List<String> tokens) {
+        for(var token: tokens){
+            if (!token.startsWith(DirectoryPrefix))
+                return Result.error(new UnknownArguments(tokens));
+
+            try {
+                directory = Path.of(token.substring(DirectoryPrefix.length()));
+            } catch (InvalidPathException e) {
+                return Result.error(new InvalidArgument("Invalid distance cache directory: " + token));
+            }
+        }
+
+        return Result.ok(this);
+    }
+}
@@ -0,0 +1,69 @@
+package dtu.aimas.config;
+
+import java.util.List;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.errors.InvalidArgument;
+import dtu.aimas.errors.UnknownArguments;
+import dtu.aimas.search.solvers.graphsearch.IDAStar;
+import dtu.aimas.search.solvers.graphsearch.SMAStar;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+
+// Memory-bounded searches for levels where the graph searches run out of memory.
+// Tokens: "ida" or "sma" (default), "nodes:<budget>" for SMA*, a cost and "od" for operator decomposition.
+public class MemoryBoundedConfigOption extends ConfigOption {
+    public static final String OptionName = "membound";
+    public String getOptionName() {
+        return OptionName;
+    }
+
+    private static final String NodesPrefix = "nodes:";
+
+    private boolean iterativeDeepening = false;
+    private int maxNodes = SMAStar.DEFAULT_MAX_NODES;
+    private Cost cost = new DistanceSumCost();
+    private boolean operatorDecomposition = false;
+
+    public void apply(Configuration conf) {
+        if (iterativeDeepening) {
+            var solver = new IDAStar(cost);
+            solver.setOperatorDecomposition(operatorDecomposition);
+            conf.setSolver(solver);
+        } else {
+            var solver = new SMAStar(cost, maxNodes);
+            solver.setOperatorDecomposition(operatorDecomposition);
+            conf.setSolver(solver);
+        }
+    }
+
+    public Result<ConfigOption> bindInner(List<String> tokens) {
+        for(var token: tokens){
+            var parsedCost = parseCost(token);
+            if (parsedCost.isPresent()) {
+                cost = parsedCost.get();
+                continue;
+            }
+
+            switch(token){
+                case "ida" -> iterativeDeepening = true;
+                case "sma" -> iterativeDeepening = false;
+                case "od" -> operatorDecomposition = true;
+                default -> {
+                    if (!token.startsWith(NodesPrefix))
+                        return Result.error(new UnknownArguments(tokens));
+
+                    try {
+                        maxNodes = Integer.parseInt(token.substring(NodesPrefix.length()));
+                    } catch (NumberFormatException e) {
+                        return Result.error(new InvalidArgument("Node budget must be an integer: " + token));
+                    }
+                    if (maxNodes < 2)
+                        return Result.error(new InvalidArgument("Node budget must be at least 2: " + token));
+                }
+            }
+        }
+
+        return Result.ok(this);
+    }
+}
@@ -28,20 +28,9 @@ public class SafePathConfigOption extends ConfigOption{
         IO.debug("tokens: " + tokens);
         for(var token: tokens){
             switch(token){
-                case "region:color:agent:guided" -> {
-                    solver = new SafePathSolver(
-                            new SafePathSolver(
-                                    new SafePathSolver(
-                                            new AStar(new GuidedDistanceSumCost()),
-                                            new AgentProblemSplitter(),
-                                            10
-                                    ),
-                                    new ColorProblemSplitter(),
-                                    10
-                            ),
-                                new RegionProblemSplitter()
-                        );
-                }
+                case "region:color:agent:guided" -> solver = regionColorAgent(false);
+                // merged multi agent sub problems are searched with operator decomposition
+                case "region:color:agent:guided:od" -> solver = regionColorAgent(true);
                 default -> {
                     return Result.error(new UnknownArguments(tokens));
                 }
@@ -50,4 +39,21 @@ public class SafePathConfigOption extends ConfigOption{
 
         return Result.ok(this);
     }
+
+    private static Solver regionColorAgent(boolean operatorDecomposition) {
+        var subSolver = new AStar(new GuidedDistanceSumCost());
+        subSolver.setOperatorDecomposition(operatorDecomposition);
+        return new SafePathSolver(
+                new SafePathSolver(
+                        new SafePathSolver(
+                                subSolver,
+                                new AgentProblemSplitter(),
+                                10
+                        ),
+                        new ColorProblemSplitter(),
+                        10
+                ),
+                new RegionProblemSplitter()
+        );
+    }
 }
@@ -0,0 +1,81 @@
+package dtu.aimas.config;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.errors.InvalidArgument;
+import dtu.aimas.errors.UnknownArguments;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.graphsearch.Greedy;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+
+// Best first search keeping only part of its frontier in memory and spilling the rest to temporary files.
+// Tokens: "astar" (default) or "greedy", "states:<count>" kept in memory, "dir:<path>" for the spilled files and a cost.
+public class SpillConfigOption extends ConfigOption {
+    public static final String OptionName = "spill";
+    public String getOptionName() {
+        return OptionName;
+    }
+
+    public static final int DEFAULT_STATES = 1 << 20;
+    private static final String StatesPrefix = "states:";
+    private static final String DirectoryPrefix = "dir:";
+
+    private boolean greedy = false;
+    private int states = DEFAULT_STATES;
+    private Path directory = null;
+    private Cost cost = new DistanceSumCost();
+
+    public void apply(Configuration conf) {
+        if (greedy) {
+            var solver = new Greedy(cost);
+            solver.setSpillThreshold(states);
+            solver.setSpillDirectory(directory);
+            conf.setSolver(solver);
+        } else {
+            var solver = new AStar(cost);
+            solver.setSpillThreshold(states);
+            solver.setSpillDirectory(directory);
+            conf.setSolver(solver);
+        }
+    }
+
+    public Result<ConfigOption> bindInner(List<String> tokens) {
+        for(var token: tokens){
+            var parsedCost = parseCost(token);
+            if (parsedCost.isPresent()) {
+                cost = parsedCost.get();
+                continue;
+            }
+
+            switch(token){
+                case "astar" -> greedy = false;
+                case "greedy" -> greedy = true;
+                default -> {
+                    if (token.startsWith(DirectoryPrefix)) {
+                        try {
+                            directory = Path.of(token.substring(DirectoryPrefix.length()));
+                        } catch (InvalidPathException e) {
+                            return Result.error(new InvalidArgument("Invalid spill directory: " + token));
+                        }
+                    } else if (token.startsWith(StatesPrefix)) {
+                        try {
+                            states = Integer.parseInt(token.substring(StatesPrefix.length()));
+                        } catch (NumberFormatException e) {
+                            return Result.error(new InvalidArgument("State count must be an integer: " + token));
+                        }
+                        if (states < 2)
+                            return Result.error(new InvalidArgument("State count must be at least 2: " + token));
+                    } else {
+                        return Result.error(new UnknownArguments(tokens));
+                    }
+                }
+            }
+        }
+
+        return Result.ok(this);
+    }
+}
@@ -151,7 +151,7 @@ public class CourseLevelParser extends LevelParser
         char[][] goals, boolean[][] walls)
     {
         var agentList = IntStream.range(0, agentRows.length)
-            .mapToObj(i -> new Agent(new Position(agentRows[i], agentCols[i]), agentColors[i], (char)('0'+i)))
+            .mapToObj(i -> new Agent(Position.of(agentRows[i], agentCols[i]), agentColors[i], (char)('0'+i)))
             .collect(Collectors.toList());
 
         var boxList = new ArrayList<Box>();
@@ -159,7 +159,7 @@ public class CourseLevelParser extends LevelParser
             for(var col = 0; col < boxes[row].length; col++){
                 var c = boxes[row][col];
                 if(!Box.isLabel(c)) continue;
-                boxList.add(new Box(new Position(row, col), boxColors[c-'A'], c));
+                boxList.add(new Box(Position.of(row, col), boxColors[c-'A'], c));
             }
         }
 
@@ -9,8 +9,7 @@ public abstract class LevelParser {
     protected abstract Result<Problem> parseInput(Reader level);
     public Result<Problem> parse(Reader level){
         return parseInput(level)
-                .map(this::validateLevel)
-                .map(Problem::precompute);
+                .map(this::validateLevel);
     }
 
     private Problem validateLevel(Problem problem){
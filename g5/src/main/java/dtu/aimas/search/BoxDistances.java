@@ -0,0 +1,178 @@
+package dtu.aimas.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import dtu.aimas.common.Position;
+
+// Fewest box moves needed to bring a box to a goal, counting only the moves an agent can actually make.
+// A box is searched together with the side its agent stands on: a push needs the agent on another side of the box than
+// the target cell, a pull needs a free cell behind the agent, and the agent can only walk to another side of the box
+// when that side is connected to it without passing the box. Other boxes and agents are ignored, so the result is a lower
+// bound of the moves, and never below the walking distance of the box.
+// A pull is the reverse of a push, so one search from the goal gives the distance from every box cell to it.
+// The field of a goal is computed when it is first queried, from any thread.
+public class BoxDistances {
+    private static final int UNREACHED = 0xFFFF;
+    private static final int[] ROW_DELTAS = {-1, 1, 0, 0};
+    private static final int[] COL_DELTAS = {0, 0, 1, -1};
+
+    private final boolean[][] walls;
+    private final int height;
+    private final int width;
+    // Side of cell * 4 + direction, cells on the same side of a cell are connected without passing it
+    private final int[] sides;
+    private final AtomicReferenceArray<short[]> fields;
+
+    public BoxDistances(boolean[][] walls) {
+        this.walls = walls;
+        this.height = walls.length;
+        this.width = height == 0 ? 0 : walls[0].length;
+        this.sides = new int[height * width * 4];
+        this.fields = new AtomicReferenceArray<>(height * width);
+        fillSides();
+    }
+
+    public int distance(int boxCell, int goalCell) {
+        if (boxCell == goalCell) return 0;
+        var field = fields.get(index(goalCell));
+        if (field == null) {
+            field = search(index(goalCell));
+            fields.set(index(goalCell), field);
+        }
+        var distance = field[index(boxCell)] & 0xFFFF;
+        return distance == UNREACHED ? DistanceOracle.UNREACHABLE : distance;
+    }
+
+    // Breadth first search over box cell and agent side. Walking around the box is free, so reaching a side reaches
+    // every side connected to it at once.
+    private short[] search(int goal) {
+        var states = height * width * 4;
+        var distances = new int[states];
+        Arrays.fill(distances, UNREACHED);
+        var queue = new int[states];
+        var tail = 0;
+        for (var direction = 0; direction < 4; direction++) {
+            if (neighbor(goal, direction) >= 0) tail = reach(goal, direction, 0, distances, queue, tail);
+        }
+
+        for (var head = 0; head < tail; head++) {
+            var state = queue[head];
+            var box = state / 4;
+            var side = state % 4;
+            var agent = neighbor(box, side);
+            var next = distances[state] + 1;
+
+            for (var direction = 0; direction < 4; direction++) {
+                // push the box away from the agent, the agent takes its cell
+                var pushed = neighbor(box, direction);
+                if (direction != side && pushed >= 0) tail = reach(pushed, opposite(direction), next, distances, queue, tail);
+
+                // pull the box onto the agent's cell, the agent steps further away
+                var step = neighbor(agent, direction);
+                if (step >= 0 && step != box) tail = reach(agent, direction, next, distances, queue, tail);
+            }
+        }
+
+        var field = new short[height * width];
+        for (var cell = 0; cell < field.length; cell++) {
+            var best = UNREACHED;
+            for (var direction = 0; direction < 4; direction++) best = Math.min(best, distances[cell * 4 + direction]);
+            field[cell] = (short) best;
+        }
+        return field;
+    }
+
+    private int reach(int box, int side, int distance, int[] distances, int[] queue, int tail) {
+        if (distances[box * 4 + side] <= distance) return tail;
+        var label = sides[box * 4 + side];
+        for (var direction = 0; direction < 4; direction++) {
+            var state = box * 4 + direction;
+            if (neighbor(box, direction) < 0 || sides[state] != label || distances[state] <= distance) continue;
+            distances[state] = distance;
+            queue[tail++] = state;
+        }
+        return tail;
+    }
+
+    // Labels the free neighbors of every cell by the part of the level they are in once the cell is blocked.
+    // Uses a depth first search: the subtree of a child that cannot reach above the cell is cut off by it, every
+    // other neighbor stays connected through the cell's parent.
+    private void fillSides() {
+        var cells = height * width;
+        var order = new int[cells];
+        var low = new int[cells];
+        var end = new int[cells];
+        var parent = new int[cells];
+        var nextDirection = new int[cells];
+        var stack = new int[cells];
+        var counter = 0;
+        Arrays.fill(order, -1);
+        Arrays.fill(sides, -1);
+
+        for (var root = 0; root < cells; root++) {
+            if (isWall(root) || order[root] >= 0) continue;
+            var top = 0;
+            stack[top++] = root;
+            parent[root] = -1;
+            order[root] = low[root] = counter++;
+            nextDirection[root] = 0;
+            while (top > 0) {
+                var cell = stack[top - 1];
+                if (nextDirection[cell] < 4) {
+                    var next = neighbor(cell, nextDirection[cell]++);
+                    if (next < 0) continue;
+                    if (order[next] < 0) {
+                        parent[next] = cell;
+                        order[next] = low[next] = counter++;
+                        nextDirection[next] = 0;
+                        stack[top++] = next;
+                    } else if (next != parent[cell]) {
+                        low[cell] = Math.min(low[cell], order[next]);
+                    }
+                    continue;
+                }
+                top--;
+                end[cell] = counter;
+                if (parent[cell] >= 0) low[parent[cell]] = Math.min(low[parent[cell]], low[cell]);
+            }
+        }
+
+        for (var cell = 0; cell < cells; cell++) {
+            if (isWall(cell)) continue;
+            for (var direction = 0; direction < 4; direction++) {
+                var next = neighbor(cell, direction);
+                if (next < 0) continue;
+                // the side above the cell, unless the neighbor is in a subtree the cell cuts off
+                var side = -1;
+                for (var child = 0; child < 4; child++) {
+                    var candidate = neighbor(cell, child);
+                    if (candidate < 0 || parent[candidate] != cell) continue;
+                    if (order[next] >= order[candidate] && order[next] < end[candidate] && low[candidate] >= order[cell])
+                        side = candidate;
+                }
+                sides[cell * 4 + direction] = side;
+            }
+        }
+    }
+
+    // Free cell in the direction, or -1
+    private int neighbor(int index, int direction) {
+        var row = index / width + ROW_DELTAS[direction];
+        var col = index % width + COL_DELTAS[direction];
+        if (row < 0 || row >= height || col < 0 || col >= width || walls[row][col]) return -1;
+        return row * width + col;
+    }
+
+    private static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    private boolean isWall(int index) {
+        return walls[index / width][index % width];
+    }
+
+    private int index(int cell) {
+        return Position.rowOf(cell) * width + Position.colOf(cell);
+    }
+}
@@ -0,0 +1,298 @@
+package dtu.aimas.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import dtu.aimas.common.Position;
+
+// Compression of the free cells of a wall layout into rooms connected by corridors.
+// Corridor cells have at most two free neighbors, and maximal runs of them form chains whose ends are recorded with the
+// room cell they are entered from. Rooms are the connected groups of the remaining free cells, and the chains become
+// the weighted edges between them.
+// Room to room distances ignore the moves inside rooms, which makes them cheap lower bounds of the cell distances.
+public class CorridorGraph {
+    public static final int NONE = -1;
+
+    // Cells in order from one end to the other, and the room cell next to each end, NONE at a dead end.
+    // A single cell chain records both of its room neighbors as entries.
+    public record Chain(int id, int[] cells, int[] entries, int[] rooms) {
+        public int length() {
+            return cells.length;
+        }
+
+        // Moves from an entry of one room to the entry of the other
+        public int crossingCost() {
+            return cells.length + 1;
+        }
+
+        // A closed ring of corridor cells without rooms, its last cell next to its first
+        public boolean isLoop() {
+            var first = cells[0];
+            var last = cells[cells.length - 1];
+            return rooms[0] == NONE && rooms[1] == NONE
+                    && Math.abs(Position.rowOf(first) - Position.rowOf(last))
+                    + Math.abs(Position.colOf(first) - Position.colOf(last)) == 1;
+        }
+    }
+
+    private record Edge(int room, int cost) { }
+
+    private final boolean[][] walls;
+    private final int height;
+    private final int width;
+    private final int[] chainOf;
+    private final int[] indexInChain;
+    private final int[] roomOf;
+    private final List<Chain> chains = new ArrayList<>();
+    private final List<List<Edge>> edges = new ArrayList<>();
+    private final AtomicReferenceArray<int[]> roomDistances;
+
+    public CorridorGraph(boolean[][] walls) {
+        this.walls = walls;
+        this.height = walls.length;
+        this.width = height == 0 ? 0 : walls[0].length;
+        var cells = height * width;
+        this.chainOf = new int[cells];
+        this.indexInChain = new int[cells];
+        this.roomOf = new int[cells];
+        Arrays.fill(chainOf, NONE);
+        Arrays.fill(roomOf, NONE);
+
+        for (var index = 0; index < cells; index++) {
+            if (isFree(index) && freeNeighbors(index, new int[4]) <= 2) chainOf[index] = 0;
+        }
+        var roomCount = fillRooms();
+        for (var room = 0; room < roomCount; room++) edges.add(new ArrayList<>());
+        fillChains();
+        this.roomDistances = new AtomicReferenceArray<>(roomCount);
+    }
+
+    public int roomCount() {
+        return edges.size();
+    }
+
+    public List<Chain> chains() {
+        return chains;
+    }
+
+    // Chain holding the cell, or null for room cells and walls
+    public Chain chainAt(int cell) {
+        var chain = chainOf[index(cell)];
+        return chain == NONE ? null : chains.get(chain);
+    }
+
+    // Position of the cell in its chain's cells
+    public int indexInChain(int cell) {
+        return indexInChain[index(cell)];
+    }
+
+    public int roomAt(int cell) {
+        return roomOf[index(cell)];
+    }
+
+    public boolean isCorridor(Position position) {
+        return chainAt(position.cell()) != null;
+    }
+
+    // Fewest moves between two rooms, counting only the corridors crossed
+    public int roomDistance(int fromRoom, int toRoom) {
+        var distances = roomDistances.get(fromRoom);
+        if (distances == null) {
+            distances = searchRooms(fromRoom);
+            roomDistances.set(fromRoom, distances);
+        }
+        return distances[toRoom];
+    }
+
+    // Admissible distance between two free cells through the room graph, DistanceOracle.UNREACHABLE if disconnected
+    public int lowerBound(int fromCell, int toCell) {
+        var manhattan = Math.abs(Position.rowOf(fromCell) - Position.rowOf(toCell))
+                + Math.abs(Position.colOf(fromCell) - Position.colOf(toCell));
+        var from = index(fromCell);
+        var to = index(toCell);
+        if (!isFree(from) || !isFree(to)) return DistanceOracle.UNREACHABLE;
+
+        var best = DistanceOracle.UNREACHABLE;
+        if (chainOf[from] != NONE && chainOf[from] == chainOf[to]) {
+            var chain = chains.get(chainOf[from]);
+            best = Math.abs(indexInChain[from] - indexInChain[to]);
+            // around a loop the other way can be shorter
+            if (chain.isLoop()) best = Math.min(best, chain.length() - best);
+        }
+
+        var fromExits = exits(from);
+        var toExits = exits(to);
+        for (var i = 0; i < fromExits.length; i += 2) {
+            for (var j = 0; j < toExits.length; j += 2) {
+                var between = roomDistance(fromExits[i], toExits[j]);
+                if (between == DistanceOracle.UNREACHABLE) continue;
+                best = Math.min(best, fromExits[i + 1] + between + toExits[j + 1]);
+            }
+        }
+        return best == DistanceOracle.UNREACHABLE ? best : Math.max(best, manhattan);
+    }
+
+    // Rooms a cell can leave its corridor to, as pairs of room and moves needed to stand on its entry
+    private int[] exits(int index) {
+        if (chainOf[index] == NONE) return new int[]{roomOf[index], 0};
+        var chain = chains.get(chainOf[index]);
+        var position = indexInChain[index];
+        var exits = new int[4];
+        var count = 0;
+        if (chain.length() == 1) {
+            for (var end = 0; end < 2; end++) {
+                if (chain.rooms[end] == NONE) continue;
+                exits[count++] = chain.rooms[end];
+                exits[count++] = 1;
+            }
+        } else {
+            if (chain.rooms[0] != NONE) {
+                exits[count++] = chain.rooms[0];
+                exits[count++] = position + 1;
+            }
+            if (chain.rooms[1] != NONE) {
+                exits[count++] = chain.rooms[1];
+                exits[count++] = chain.length() - position;
+            }
+        }
+        return Arrays.copyOf(exits, count);
+    }
+
+    private int[] searchRooms(int source) {
+        var distances = new int[roomCount()];
+        Arrays.fill(distances, DistanceOracle.UNREACHABLE);
+        distances[source] = 0;
+        var queue = new PriorityQueue<Long>();
+        queue.add((long) source);
+        while (!queue.isEmpty()) {
+            var top = (long) queue.poll();
+            var room = (int) top;
+            var distance = (int) (top >>> 32);
+            if (distance != distances[room]) continue;
+            for (var edge : edges.get(room)) {
+                var next = distance + edge.cost();
+                if (next >= distances[edge.room()]) continue;
+                distances[edge.room()] = next;
+                queue.add(((long) next << 32) | edge.room());
+            }
+        }
+        return distances;
+    }
+
+    private int fillRooms() {
+        var room = 0;
+        var queue = new int[height * width];
+        var neighbors = new int[4];
+        for (var start = 0; start < height * width; start++) {
+            if (!isFree(start) || chainOf[start] != NONE || roomOf[start] != NONE) continue;
+            var head = 0;
+            var tail = 0;
+            roomOf[start] = room;
+            queue[tail++] = start;
+            while (head < tail) {
+                var current = queue[head++];
+                var count = freeNeighbors(current, neighbors);
+                for (var i = 0; i < count; i++) {
+                    var neighbor = neighbors[i];
+                    if (chainOf[neighbor] != NONE || roomOf[neighbor] != NONE) continue;
+                    roomOf[neighbor] = room;
+                    queue[tail++] = neighbor;
+                }
+            }
+            room++;
+        }
+        return room;
+    }
+
+    private void fillChains() {
+        var neighbors = new int[4];
+        var visited = new boolean[height * width];
+        for (var start = 0; start < height * width; start++) {
+            if (chainOf[start] == NONE || visited[start]) continue;
+
+            // walk to one end of the run, a run without ends is a closed loop and starts anywhere
+            var end = start;
+            var previous = NONE;
+            while (true) {
+                var next = nextInRun(end, previous, neighbors);
+                if (next == NONE || next == start) break;
+                previous = end;
+                end = next;
+            }
+
+            var cells = new ArrayList<Integer>();
+            previous = NONE;
+            for (var current = end; current != NONE && !visited[current]; ) {
+                visited[current] = true;
+                cells.add(current);
+                var next = nextInRun(current, previous, neighbors);
+                previous = current;
+                current = next;
+            }
+
+            var id = chains.size();
+            var chainCells = new int[cells.size()];
+            for (var i = 0; i < chainCells.length; i++) {
+                var index = cells.get(i);
+                chainOf[index] = id;
+                indexInChain[index] = i;
+                chainCells[i] = Position.cell(index / width, index % width);
+            }
+            var entries = new int[]{NONE, NONE};
+            var rooms = new int[]{NONE, NONE};
+            recordEntries(cells, entries, rooms, neighbors);
+            var chain = new Chain(id, chainCells, entries, rooms);
+            chains.add(chain);
+            if (rooms[0] != NONE && rooms[1] != NONE && rooms[0] != rooms[1]) {
+                edges.get(rooms[0]).add(new Edge(rooms[1], chain.crossingCost()));
+                edges.get(rooms[1]).add(new Edge(rooms[0], chain.crossingCost()));
+            }
+        }
+    }
+
+    private void recordEntries(List<Integer> cells, int[] entries, int[] rooms, int[] neighbors) {
+        var ends = cells.size() == 1 ? new int[]{cells.get(0)} : new int[]{cells.get(0), cells.get(cells.size() - 1)};
+        var slot = 0;
+        for (var end : ends) {
+            if (ends.length == 2) slot = end == ends[0] ? 0 : 1;
+            var count = freeNeighbors(end, neighbors);
+            for (var i = 0; i < count && slot < 2; i++) {
+                if (chainOf[neighbors[i]] != NONE) continue;
+                entries[slot] = Position.cell(neighbors[i] / width, neighbors[i] % width);
+                rooms[slot] = roomOf[neighbors[i]];
+                slot++;
+            }
+        }
+    }
+
+    // Corridor neighbor of the cell other than the previous one, NONE at the end of the run
+    private int nextInRun(int index, int previous, int[] neighbors) {
+        var count = freeNeighbors(index, neighbors);
+        for (var i = 0; i < count; i++) {
+            if (neighbors[i] != previous && chainOf[neighbors[i]] != NONE) return neighbors[i];
+        }
+        return NONE;
+    }
+
+    private int freeNeighbors(int index, int[] result) {
+        var row = index / width;
+        var col = index % width;
+        var count = 0;
+        if (row > 0 && !walls[row - 1][col]) result[count++] = index - width;
+        if (col > 0 && !walls[row][col - 1]) result[count++] = index - 1;
+        if (row < height - 1 && !walls[row + 1][col]) result[count++] = index + width;
+        if (col < width - 1 && !walls[row][col + 1]) result[count++] = index + 1;
+        return count;
+    }
+
+    private boolean isFree(int index) {
+        return !walls[index / width][index % width];
+    }
+
+    private int index(int cell) {
+        return Position.rowOf(cell) * width + Position.colOf(cell);
+    }
+}
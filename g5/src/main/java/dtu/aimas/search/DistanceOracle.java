@@ -0,0 +1,355 @@
+package dtu.aimas.search;
+
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+import dtu.aimas.common.Position;
+import lombok.Getter;
+
+// Shortest path distances between cells of a wall layout.
+// Single source BFS fields are computed when a source is first queried and kept as flat unsigned short arrays,
+// so only the cells the heuristics actually ask about (goals, boxes, agents) cost memory and time.
+// At most `capacity` fields are kept, evicting the least recently used one with a clock approximation.
+// Lookups are lock free and safe from several threads, only storing a new field is synchronized.
+// An oracle for the same layout with more walls is derived by repairing the cached fields around the new walls.
+// An oracle can also be backed by a complete table, e.g. mapped from a DistanceTableFile, which is only read.
+public class DistanceOracle {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int UNREACHED = 0xFFFF;
+    // bytes the fields of a single oracle may use by default
+    private static final long DEFAULT_MEMORY = 64L << 20;
+    // sources searched by a single fork join task
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final boolean[][] walls;
+    private final int height;
+    private final int width;
+    private final AtomicReferenceArray<short[]> fields;
+    // field of every target, one after the other, or null when the fields are computed lazily
+    private final ShortBuffer table;
+    // Set on every hit and cleared by the clock hand, racy writes only affect which field is evicted
+    private final boolean[] referenced;
+    private int capacity;
+    private int[] residents;
+    private int residentCount = 0;
+    private int hand = 0;
+    @Getter
+    private volatile long computedFields = 0;
+    @Getter
+    private long repairedFields = 0;
+    // Box transport distances on the same walls, only built when first used
+    private volatile BoxDistances boxDistances;
+
+    public DistanceOracle(boolean[][] walls, int capacity) {
+        this(walls, capacity, null);
+    }
+
+    public DistanceOracle(boolean[][] walls) {
+        this(walls, defaultCapacity(walls));
+    }
+
+    // Reads every distance from a table written by fillTable for the same walls
+    DistanceOracle(boolean[][] walls, ShortBuffer table) {
+        this(walls, 1, table);
+    }
+
+    private DistanceOracle(boolean[][] walls, int capacity, ShortBuffer table) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        // callers keep editing their wall arrays, e.g. walling finished boxes, so the fields need their own copy
+        this.walls = Arrays.stream(walls).map(boolean[]::clone).toArray(boolean[][]::new);
+        this.height = walls.length;
+        this.width = height == 0 ? 0 : walls[0].length;
+        var cells = height * width;
+        this.fields = new AtomicReferenceArray<>(cells);
+        this.referenced = new boolean[cells];
+        this.capacity = Math.min(capacity, Math.max(1, cells));
+        this.residents = new int[this.capacity];
+        this.table = table;
+    }
+
+    private static int defaultCapacity(boolean[][] walls) {
+        var cells = Math.max(1, walls.length == 0 ? 0 : walls.length * walls[0].length);
+        return (int) Math.max(64, DEFAULT_MEMORY / (2L * cells));
+    }
+
+    public int distance(int fromCell, int toCell) {
+        if (table != null) {
+            var distance = table.get(index(toCell) * height * width + index(fromCell)) & 0xFFFF;
+            return distance == UNREACHED ? UNREACHABLE : distance;
+        }
+        // distances are symmetric, and the target is usually a goal whose field is already cached
+        var field = field(index(toCell));
+        var distance = field[index(fromCell)] & 0xFFFF;
+        return distance == UNREACHED ? UNREACHABLE : distance;
+    }
+
+    public int distance(Position from, Position to) {
+        return distance(from.cell(), to.cell());
+    }
+
+    // Eager all pairs: computes the field of every cell and never evicts them
+    public synchronized DistanceOracle precomputeAll() {
+        if (table != null) return this;
+        var cells = height * width;
+        if (capacity < cells) {
+            capacity = cells;
+            residents = Arrays.copyOf(residents, cells);
+        }
+        // the searches run in parallel, storing them needs the lock this thread already holds
+        var computed = new short[cells][];
+        searchAll((field, source) -> computed[source] = field, source -> fields.get(source) == null);
+        for (var source = 0; source < cells; source++) {
+            if (computed[source] == null) continue;
+            store(source, computed[source]);
+            computedFields++;
+        }
+        return this;
+    }
+
+    // Writes the field of every target into the table, in the layout read by the table backed oracle
+    void fillTable(ShortBuffer target) {
+        var cells = height * width;
+        searchAll((field, source) -> target.put(source * cells, field), source -> true);
+        computedFields += cells;
+    }
+
+    private void searchAll(ObjIntConsumer<short[]> sink, IntPredicate needed) {
+        ForkJoinPool.commonPool().invoke(new Search(0, height * width, sink, needed));
+    }
+
+    private class Search extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final ObjIntConsumer<short[]> sink;
+        private final IntPredicate needed;
+
+        Search(int from, int to, ObjIntConsumer<short[]> sink, IntPredicate needed) {
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+            this.needed = needed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SOURCES_PER_TASK) {
+                for (var source = from; source < to; source++) {
+                    if (needed.test(source)) sink.accept(bfs(source), source);
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new Search(from, middle, sink, needed), new Search(middle, to, sink, needed));
+        }
+    }
+
+    // Distances on the same cells with the given walls, or this oracle if they are unchanged.
+    // When cells only became walls, every cached field is repaired by recomputing just the cells whose shortest paths
+    // all crossed a new wall. Removed walls can shorten any path, so those get a new oracle.
+    public DistanceOracle withWalls(boolean[][] walls) {
+        if (walls.length != height || (height > 0 && walls[0].length != width)) return new DistanceOracle(walls);
+
+        var added = new int[height * width];
+        var addedCount = 0;
+        for (var row = 0; row < height; row++) {
+            for (var col = 0; col < width; col++) {
+                if (walls[row][col] == this.walls[row][col]) continue;
+                if (!walls[row][col]) return new DistanceOracle(walls);
+                added[addedCount++] = row * width + col;
+            }
+        }
+        if (addedCount == 0) return this;
+        added = Arrays.copyOf(added, addedCount);
+
+        // a table has no fields to repair and its capacity of one would evict the field of every other target
+        var derived = new DistanceOracle(walls, table != null ? defaultCapacity(walls) : capacity);
+        synchronized (this) {
+            for (var i = 0; i < residentCount; i++) {
+                var source = residents[i];
+                // a field from a new wall is all unreachable, and cheaper to compute again if ever needed
+                if (derived.walls[source / width][source % width]) continue;
+                var field = fields.get(source).clone();
+                derived.repair(field, added);
+                derived.store(source, field);
+                derived.repairedFields++;
+            }
+        }
+        return derived;
+    }
+
+    public BoxDistances boxDistances() {
+        var result = boxDistances;
+        if (result == null) {
+            result = new BoxDistances(walls);
+            boxDistances = result;
+        }
+        return result;
+    }
+
+    public int cachedFields() {
+        return table != null ? height * width : residentCount;
+    }
+
+    private int index(int cell) {
+        return Position.rowOf(cell) * width + Position.colOf(cell);
+    }
+
+    private short[] field(int source) {
+        var field = fields.get(source);
+        // new fields start unreferenced, so only fields used again survive the next sweep
+        if (field == null) return compute(source);
+        referenced[source] = true;
+        return field;
+    }
+
+    private short[] compute(int source) {
+        // the search runs outside the lock, two threads may compute the same field but only one is kept
+        var field = bfs(source);
+        synchronized (this) {
+            var existing = fields.get(source);
+            if (existing != null) return existing;
+            store(source, field);
+            computedFields++;
+            return field;
+        }
+    }
+
+    private void store(int source, short[] field) {
+        if (residentCount < capacity) {
+            residents[residentCount++] = source;
+        } else {
+            while (referenced[residents[hand]]) {
+                referenced[residents[hand]] = false;
+                hand = (hand + 1) % capacity;
+            }
+            fields.set(residents[hand], null);
+            residents[hand] = source;
+            hand = (hand + 1) % capacity;
+        }
+        fields.set(source, field);
+    }
+
+    private short[] bfs(int source) {
+        var cells = height * width;
+        var field = new short[cells];
+        Arrays.fill(field, (short) UNREACHED);
+        var sourceRow = source / width;
+        var sourceCol = source % width;
+        if (walls[sourceRow][sourceCol]) return field;
+
+        var queue = new int[cells];
+        var head = 0;
+        var tail = 0;
+        field[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            var current = queue[head++];
+            var next = (short) ((field[current] & 0xFFFF) + 1);
+            var row = current / width;
+            var col = current % width;
+            if (row > 0) tail = visit(field, queue, tail, current - width, row - 1, col, next);
+            if (col > 0) tail = visit(field, queue, tail, current - 1, row, col - 1, next);
+            if (row < height - 1) tail = visit(field, queue, tail, current + width, row + 1, col, next);
+            if (col < width - 1) tail = visit(field, queue, tail, current + 1, row, col + 1, next);
+        }
+        return field;
+    }
+
+    private int visit(short[] field, int[] queue, int tail, int index, int row, int col, short distance) {
+        if (walls[row][col] || (field[index] & 0xFFFF) != UNREACHED) return tail;
+        field[index] = distance;
+        queue[tail++] = index;
+        return tail;
+    }
+
+    // Fixes a field of the previous walls after the added cells became walls. Distances only grow, and a cell keeps its
+    // distance as long as a neighbor one step closer to the source kept its own. The cells without such a neighbor are
+    // found in increasing distance from the new walls, cleared, and searched again from the unaffected cells around them.
+    private void repair(short[] field, int[] added) {
+        var affected = new boolean[field.length];
+        var queue = new PriorityQueue<Long>();
+        var neighbors = new int[4];
+        var supports = new int[4];
+        for (var wall : added) {
+            if ((field[wall] & 0xFFFF) == UNREACHED) continue;
+            affected[wall] = true;
+            queue.add(entry(field[wall] & 0xFFFF, wall));
+        }
+        if (queue.isEmpty()) return;
+
+        // every affected cell is marked before the cells one step further are checked
+        var cleared = new int[field.length];
+        var clearedCount = 0;
+        while (!queue.isEmpty()) {
+            var current = (int) (long) queue.poll();
+            var next = (field[current] & 0xFFFF) + 1;
+            var count = neighbors(current, neighbors);
+            for (var i = 0; i < count; i++) {
+                var neighbor = neighbors[i];
+                if (affected[neighbor] || (field[neighbor] & 0xFFFF) != next || isSupported(field, affected, neighbor, supports)) continue;
+                affected[neighbor] = true;
+                cleared[clearedCount++] = neighbor;
+                queue.add(entry(next, neighbor));
+            }
+        }
+
+        for (var wall : added) field[wall] = (short) UNREACHED;
+        for (var i = 0; i < clearedCount; i++) field[cleared[i]] = (short) UNREACHED;
+        for (var i = 0; i < clearedCount; i++) {
+            var cell = cleared[i];
+            var best = UNREACHED;
+            var count = neighbors(cell, neighbors);
+            for (var j = 0; j < count; j++) {
+                if (!affected[neighbors[j]]) best = Math.min(best, (field[neighbors[j]] & 0xFFFF) + 1);
+            }
+            if (best >= UNREACHED) continue;
+            field[cell] = (short) best;
+            queue.add(entry(best, cell));
+        }
+
+        while (!queue.isEmpty()) {
+            var top = (long) queue.poll();
+            var current = (int) top;
+            var distance = (int) (top >>> 32);
+            if ((field[current] & 0xFFFF) != distance) continue;
+            var count = neighbors(current, neighbors);
+            for (var i = 0; i < count; i++) {
+                var neighbor = neighbors[i];
+                if (!affected[neighbor] || (field[neighbor] & 0xFFFF) <= distance + 1) continue;
+                field[neighbor] = (short) (distance + 1);
+                queue.add(entry(distance + 1, neighbor));
+            }
+        }
+    }
+
+    private static long entry(int distance, int index) {
+        return ((long) distance << 32) | index;
+    }
+
+    private boolean isSupported(short[] field, boolean[] affected, int index, int[] neighbors) {
+        var previous = (field[index] & 0xFFFF) - 1;
+        var count = neighbors(index, neighbors);
+        for (var i = 0; i < count; i++) {
+            if (!affected[neighbors[i]] && (field[neighbors[i]] & 0xFFFF) == previous) return true;
+        }
+        return false;
+    }
+
+    // Free cells next to the given one under this oracle's walls
+    private int neighbors(int index, int[] result) {
+        var row = index / width;
+        var col = index % width;
+        var count = 0;
+        if (row > 0 && !walls[row - 1][col]) result[count++] = index - width;
+        if (col > 0 && !walls[row][col - 1]) result[count++] = index - 1;
+        if (row < height - 1 && !walls[row + 1][col]) result[count++] = index + width;
+        if (col < width - 1 && !walls[row][col + 1]) result[count++] = index + 1;
+        return count;
+    }
+}
@@ -0,0 +1,142 @@
+package dtu.aimas.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.InvalidOperation;
+
+// All pairs distance tables kept on disk, one file per wall layout, so repeated runs on a level skip the searches.
+// A file holds a header, the walls it was computed for and the field of every cell, and is mapped read-only when used.
+// Files are written under a temporary name and moved in place, so a file with the right name is either complete
+// or from an older format, and anything unexpected is treated as missing.
+public class DistanceTableFile {
+    private static final int MAGIC = 0x44495354;
+    private static final int VERSION = 1;
+    // magic, version, height, width and the hash of the walls
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+
+    public static Path pathFor(Path directory, boolean[][] walls) {
+        return directory.resolve(String.format("distances-%016x.bin", hash(walls)));
+    }
+
+    // The table stored for these walls, or an error if it is missing or does not match them
+    public static Result<DistanceOracle> load(Path directory, boolean[][] walls) {
+        var path = pathFor(directory, walls);
+        if (!Files.isRegularFile(path)) return Result.error(new InvalidOperation("No distance table at " + path));
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = fileSize(walls);
+            if (size < 0 || channel.size() != size)
+                return Result.error(new InvalidOperation("Distance table has the wrong size: " + path));
+
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            if (!matchesHeader(buffer, walls))
+                return Result.error(new InvalidOperation("Distance table was computed for other walls: " + path));
+
+            return Result.ok(new DistanceOracle(walls, buffer.position(tableOffset(walls)).slice()
+                    .order(ByteOrder.LITTLE_ENDIAN).asShortBuffer()));
+        } catch (IOException e) {
+            return Result.error(e);
+        }
+    }
+
+    // Maps the stored table, otherwise computes and stores it. If it cannot be stored the distances are computed lazily.
+    public static DistanceOracle loadOrCompute(Path directory, boolean[][] walls) {
+        var loaded = load(directory, walls);
+        if (loaded.isOk()) return loaded.get();
+        IO.debug(loaded.getErrorMessageOrEmpty());
+
+        var stored = store(directory, walls).flatMap(path -> load(directory, walls));
+        if (stored.isOk()) return stored.get();
+        IO.warn("Could not store distance table: %s", stored.getErrorMessageOrEmpty());
+        return new DistanceOracle(walls);
+    }
+
+    public static Result<Path> store(Path directory, boolean[][] walls) {
+        var size = fileSize(walls);
+        if (size < 0) return Result.error(new InvalidOperation("Level is too large for a distance table"));
+
+        var path = pathFor(directory, walls);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                var buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+                writeHeader(buffer, walls);
+                var table = buffer.position(tableOffset(walls)).slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+                new DistanceOracle(walls, 1).fillTable(table);
+                mapped.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Result.ok(path);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            return Result.error(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            IO.logException(e);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, boolean[][] walls) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(walls.length).putInt(width(walls)).putLong(hash(walls));
+        for (var row : walls) {
+            for (var wall : row) buffer.put((byte) (wall ? 1 : 0));
+        }
+    }
+
+    private static boolean matchesHeader(ByteBuffer buffer, boolean[][] walls) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return false;
+        if (buffer.getInt() != walls.length || buffer.getInt() != width(walls)) return false;
+        if (buffer.getLong() != hash(walls)) return false;
+        for (var row : walls) {
+            for (var wall : row) {
+                if (buffer.get() != (wall ? 1 : 0)) return false;
+            }
+        }
+        return true;
+    }
+
+    // The walls are followed by padding so the table starts on an 8 byte boundary
+    private static int tableOffset(boolean[][] walls) {
+        return (HEADER_BYTES + walls.length * width(walls) + 7) & ~7;
+    }
+
+    // Bytes of the whole file, or -1 if it is too large to be mapped at once
+    private static long fileSize(boolean[][] walls) {
+        long cells = (long) walls.length * width(walls);
+        var size = tableOffset(walls) + cells * cells * Short.BYTES;
+        return size > Integer.MAX_VALUE ? -1 : size;
+    }
+
+    private static int width(boolean[][] walls) {
+        return walls.length == 0 ? 0 : walls[0].length;
+    }
+
+    // 64 bit FNV-1a over the dimensions and the walls
+    static long hash(boolean[][] walls) {
+        var hash = 0xcbf29ce484222325L;
+        hash = (hash ^ walls.length) * 0x100000001b3L;
+        hash = (hash ^ width(walls)) * 0x100000001b3L;
+        for (var row : walls) {
+            for (var wall : row) hash = (hash ^ (wall ? 1 : 0)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,116 @@
+package dtu.aimas.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+
+import dtu.aimas.common.Position;
+
+// Flat numbering of the cells of a wall layout, row * width + col, with the cells each action touches precomputed.
+// For every cell and action the tables hold the cell the agent moves to, and the cells the box moves from and to,
+// as packed cells (Position.cell) so they can be compared with state cells directly. Targets are recorded even when
+// they are walls, the actions whose cells are all free are listed per cell in Action order.
+public final class GridTopology {
+    public static final int NO_CELL = Integer.MIN_VALUE;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int height;
+    private final int width;
+    private final BitSet walls;
+    private final int[] agentTargets;
+    private final int[] boxSources;
+    private final int[] boxTargets;
+    private final Action[][] possibleActions;
+
+    public GridTopology(boolean[][] walls) {
+        this.height = walls.length;
+        this.width = height == 0 ? 0 : walls[0].length;
+        var cells = height * width;
+        this.walls = new BitSet(cells);
+        for (var row = 0; row < height; row++) {
+            for (var col = 0; col < width; col++) {
+                if (walls[row][col]) this.walls.set(row * width + col);
+            }
+        }
+
+        this.agentTargets = new int[cells * ACTIONS.length];
+        this.boxSources = new int[cells * ACTIONS.length];
+        this.boxTargets = new int[cells * ACTIONS.length];
+        this.possibleActions = new Action[cells][];
+        var possible = new ArrayList<Action>(ACTIONS.length);
+        for (var index = 0; index < cells; index++) {
+            var cell = cell(index);
+            possible.clear();
+            for (var action : ACTIONS) {
+                var entry = index * ACTIONS.length + action.ordinal();
+                var agentTarget = offset(cell, action.agentRowDelta, action.agentColDelta);
+                agentTargets[entry] = agentTarget;
+                boxSources[entry] = NO_CELL;
+                boxTargets[entry] = NO_CELL;
+                switch (action.type) {
+                    case Push -> {
+                        boxSources[entry] = agentTarget;
+                        boxTargets[entry] = offset(agentTarget, action.boxRowDelta, action.boxColDelta);
+                    }
+                    case Pull -> {
+                        boxSources[entry] = offset(cell, -action.boxRowDelta, -action.boxColDelta);
+                        boxTargets[entry] = cell;
+                    }
+                    default -> { }
+                }
+                if (isWall(agentTarget)) continue;
+                if (boxSources[entry] != NO_CELL && (isWall(boxSources[entry]) || isWall(boxTargets[entry]))) continue;
+                possible.add(action);
+            }
+            possibleActions[index] = isWall(cell) ? new Action[0] : possible.toArray(Action[]::new);
+        }
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int cellCount() {
+        return height * width;
+    }
+
+    public int index(int cell) {
+        return Position.rowOf(cell) * width + Position.colOf(cell);
+    }
+
+    public int cell(int index) {
+        return Position.cell(index / width, index % width);
+    }
+
+    // Cells outside the level count as walls
+    public boolean isWall(int cell) {
+        var row = Position.rowOf(cell);
+        var col = Position.colOf(cell);
+        return row < 0 || row >= height || col < 0 || col >= width || walls.get(row * width + col);
+    }
+
+    // Actions of an agent on the cell that keep the agent and its box off walls, shared and not to be modified
+    public Action[] possibleActions(int cell) {
+        return possibleActions[index(cell)];
+    }
+
+    public int agentTarget(int cell, Action action) {
+        return agentTargets[index(cell) * ACTIONS.length + action.ordinal()];
+    }
+
+    // Cell of the box a push or pull moves, NO_CELL for other actions
+    public int boxSource(int cell, Action action) {
+        return boxSources[index(cell) * ACTIONS.length + action.ordinal()];
+    }
+
+    public int boxTarget(int cell, Action action) {
+        return boxTargets[index(cell) * ACTIONS.length + action.ordinal()];
+    }
+
+    private static int offset(int cell, int rowDelta, int colDelta) {
+        return Position.cell(Position.rowOf(cell) + rowDelta, Position.colOf(cell) + colDelta);
+    }
+}
@@ -9,7 +9,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class Problem {
-    public final int MAX_DISTANCE = Integer.MAX_VALUE;
+    public final int MAX_DISTANCE = DistanceOracle.UNREACHABLE;
     public final Collection<Agent> agents;
     public final Collection<Box> boxes;
     public final boolean[][] walls;
@@ -17,9 +17,20 @@ public class Problem {
     public final Collection<Goal> agentGoals;
     public final Collection<Goal> boxGoals;
     public final int expectedStateSize;
-    private int[][][][] distances;
+    private final DistanceOracle distances;
+    // Room and corridor structure of the walls, only built when first used
+    private volatile CorridorGraph corridors;
+    // Flat cells and action targets of the walls, only built when first used
+    private volatile GridTopology topology;
 
     public Problem(Collection<Agent> agentCollection, Collection<Box> boxCollection, boolean[][] walls, char[][] goals)
+    {
+        this(agentCollection, boxCollection, walls, goals, new DistanceOracle(walls));
+    }
+
+    // Derived problems on the same walls share the distances of their source instead of computing them again
+    protected Problem(Collection<Agent> agentCollection, Collection<Box> boxCollection, boolean[][] walls, char[][] goals,
+                      DistanceOracle distances)
     {
         this.agents = agentCollection;
         this.boxes = boxCollection;
@@ -29,7 +40,7 @@ public class Problem {
 
         this.agentGoals = extractGoals(Agent::isLabel);
         this.boxGoals = extractGoals(Box::isLabel);
-        this.distances = initializeDistances();
+        this.distances = distances;
     }
 
     // todo these should be private and only called by `copyWith` method which can be overwritten by
@@ -48,6 +59,8 @@ public class Problem {
         this.walls = walls;
         this.expectedStateSize = parent.expectedStateSize;
         this.distances = parent.distances;
+        this.corridors = parent.corridors;
+        this.topology = parent.topology;
     }
 
     private Collection<Goal> extractGoals(Function<Character, Boolean> predicate){
@@ -57,64 +70,15 @@ public class Problem {
                 var c = goals[row][col];
                 if (!predicate.apply(c)) continue;
 
-                result.add(new Goal(c, new Position(row, col)));
+                result.add(new Goal(c, Position.of(row, col)));
             }
         }
         return result;
     }
 
-    private int[][][][] initializeDistances(){
-        var distances = new int[walls.length][walls[0].length][walls.length][walls[0].length];
-        Arrays.stream(distances)
-                .flatMap(Arrays::stream)
-                .flatMap(Arrays::stream)
-                .forEach(a -> Arrays.fill(a, MAX_DISTANCE));
-        return distances;
-    }
-
-    private void distanceFromPos(Position src) {
-        if(walls[src.row][src.col]) return;
-        Queue<Position> neighbors = new LinkedList<Position>();
-        distances[src.row][src.col][src.row][src.col] = 0;
-        neighbors.add(src);
-        while(!neighbors.isEmpty()) {
-            Position curr = neighbors.remove();
-            int distToCurr = distances[src.row][src.col][curr.row][curr.col];
-            if(distToCurr == MAX_DISTANCE) continue;
-
-            Position top = new Position(curr.row-1,curr.col);
-            if(top.row >= 0 && !walls[top.row][top.col]
-                    && distances[src.row][src.col][top.row][top.col] > distToCurr+1) {
-                distances[src.row][src.col][top.row][top.col] = distToCurr+1;
-                neighbors.add(top);             
-            }
-            Position left = new Position(curr.row,curr.col-1);
-            if (left.col >= 0 && !walls[left.row][left.col]
-                    && distances[src.row][src.col][left.row][left.col] > distToCurr+1 ) {
-                distances[src.row][src.col][left.row][left.col] = distToCurr+1;
-                neighbors.add(left);
-            }
-            Position bot = new Position(curr.row+1,curr.col);
-            if (bot.row < walls.length && !walls[bot.row][bot.col]
-                    && distances[src.row][src.col][bot.row][bot.col] > distToCurr+1) {
-                distances[src.row][src.col][bot.row][bot.col] = distToCurr+1;
-                neighbors.add(bot);
-            }
-            Position right = new Position(curr.row,curr.col+1);
-            if (right.col < walls[right.row].length && !walls[right.row][right.col]
-                    && distances[src.row][src.col][right.row][right.col] > distToCurr+1) {
-                distances[src.row][src.col][right.row][right.col] = distToCurr+1;
-                neighbors.add(right);
-            }
-        }
-    }
-
+    // Computes the distances between all pairs of cells up front instead of when first queried
     public Problem precompute(){
-        for(int x = 0; x < walls.length; x++) {
-            for(int y = 0; y < walls[x].length; y++) {
-                distanceFromPos(new Position(x,y));
-            }
-        }
+        distances.precomputeAll();
         return this;
     }
 
@@ -210,15 +174,84 @@ public class Problem {
                 }
             }
         }
-        return new Problem(agents, subBoxes, walls, subGoals);
+        return new Problem(agents, subBoxes, walls, subGoals, distances);
+    }
+
+    // Boxes of a color no agent has can never move, so they act as walls for everyone.
+    // Turns them into walls, dropping the goals they already satisfy, so states no longer carry them and distances
+    // route around them. Boxes on goals they do not satisfy are kept, the problem stays unsolvable either way.
+    // Plans are unaffected, since the boxes never appear in an action.
+    public Problem withoutImmovableBoxes() {
+        var colors = agents.stream().map(a -> a.color).collect(Collectors.toSet());
+        var immovable = boxes.stream()
+            .filter(b -> !colors.contains(b.color))
+            .filter(b -> goals[b.pos.row][b.pos.col] == 0 || goals[b.pos.row][b.pos.col] == b.label)
+            .collect(Collectors.toSet());
+        if (immovable.isEmpty()) return this;
+
+        var newWalls = new boolean[walls.length][];
+        var newGoals = new char[goals.length][];
+        for (var row = 0; row < walls.length; row++) newWalls[row] = walls[row].clone();
+        for (var row = 0; row < goals.length; row++) newGoals[row] = goals[row].clone();
+        for (var box : immovable) {
+            newWalls[box.pos.row][box.pos.col] = true;
+            newGoals[box.pos.row][box.pos.col] = 0;
+        }
+        var movable = boxes.stream().filter(b -> !immovable.contains(b)).toList();
+        return copyWith(List.copyOf(agents), movable, newGoals, newWalls);
+    }
+
+    public DistanceOracle getDistances() {
+        return distances;
+    }
+
+    public CorridorGraph getCorridors() {
+        var graph = corridors;
+        if (graph == null) {
+            graph = new CorridorGraph(walls);
+            corridors = graph;
+        }
+        return graph;
+    }
+
+    public GridTopology getTopology() {
+        var grid = topology;
+        if (grid == null) {
+            grid = new GridTopology(walls);
+            topology = grid;
+        }
+        return grid;
+    }
+
+    // The same problem reading its distances from the given oracle, which must be for the same walls
+    public Problem withDistances(DistanceOracle distances) {
+        return new Problem(agents, boxes, walls, goals, distances);
+    }
+
+    // The distances of this problem if the walls are unchanged, otherwise ones repaired or rebuilt for the given walls
+    protected DistanceOracle distancesFor(boolean[][] walls) {
+        return distances.withWalls(walls);
     }
 
     public int admissibleDist(Position from, Position to) {
-        return distances[from.row][from.col][to.row][to.col];
+        return distances.distance(from, to);
+    }
+
+    public int admissibleDist(int fromCell, int toCell) {
+        return distances.distance(fromCell, toCell);
+    }
+
+    // Box moves needed to bring a box to the cell when agents must stand on the right side of it, see BoxDistances
+    public int boxDist(int boxCell, int goalCell) {
+        return distances.boxDistances().distance(boxCell, goalCell);
     }
     
     public boolean isFree(Position pos, Agent agent, int timeStep) {
-        return !walls[pos.row][pos.col];
+        return isFree(pos.cell(), agent == null ? 0 : agent.label, timeStep);
+    }
+
+    public boolean isFree(int cell, char agentLabel, int timeStep) {
+        return !getTopology().isWall(cell);
     }
 
     public boolean isChokepoint(Position pos) {
@@ -247,12 +280,17 @@ public class Problem {
         return true;
     }
 
+    // Whether free cells or goal validity depend on the time step, in which case states at different steps differ
+    public boolean isTimeDependent() {
+        return false;
+    }
+
     public Problem copyWith(List<Agent> agents, List<Box> boxes, char[][] goals) {
         return new Problem(agents, boxes, goals, this);
     }
 
     public Problem copyWith(List<Agent> agents, List<Box> boxes, char[][] goals, boolean[][] walls) {
-        return new Problem(agents, boxes, walls, goals).precompute();
+        return new Problem(agents, boxes, walls, goals, distancesFor(walls));
     }
 
 }
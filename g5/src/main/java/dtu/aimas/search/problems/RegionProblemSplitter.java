@@ -78,7 +78,7 @@ public class RegionProblemSplitter implements ProblemSplitter {
 
     private static void floodRegion(char[][] world, char regionId, int row, int col) {
         var queue = new ArrayDeque<Position>();
-        queue.add(new Position(row, col));
+        queue.add(Position.of(row, col));
 
         while(!queue.isEmpty()){
             var pos = queue.poll();
@@ -93,6 +93,6 @@ public class RegionProblemSplitter implements ProblemSplitter {
     private static void addToQueueIfEmpty(int row, int col, char[][] world, ArrayDeque<Position> queue){
         if(row < 0 || row >= world.length) return;
         if(col < 0 || col >= world[0].length) return;
-        if(world[row][col] == 0) queue.add(new Position(row, col));
+        if(world[row][col] == 0) queue.add(Position.of(row, col));
     }
 }
@@ -58,16 +58,16 @@ public class ConflictChecker {
             if(!space.isValid(previousState)) return Optional.of(otherSolution);
 
             if(step < mainSolution.size() && mainState.jointAction != null) { // If main solution is finished its NoOp
-                for (var i = 0; i < mainState.agents.size(); i++) {
-                    if (space.isApplicable(previousState, mainState.parent.agents.get(i), mainState.jointAction[i]))
+                for (var i = 0; i < mainState.agents().size(); i++) {
+                    if (space.isApplicable(previousState, mainState.parent.agents().get(i), mainState.jointAction[i]))
                         continue;
                     return Optional.of(otherSolution);
                 }
             }
 
             if(step < otherSolution.size() && otherState.jointAction != null){ // If other solution is finished its NoOp
-                for(var i = 0; i < otherState.agents.size(); i++){
-                    if(space.isApplicable(previousState, otherState.parent.agents.get(i), otherState.jointAction[i])) continue;
+                for(var i = 0; i < otherState.agents().size(); i++){
+                    if(space.isApplicable(previousState, otherState.parent.agents().get(i), otherState.jointAction[i])) continue;
                     return Optional.of(otherSolution);
                 }
             }
@@ -153,8 +153,8 @@ public class ConflictChecker {
         var mergedState = space.shallowMerge(conflictingSolutions.stream().map(s -> s.getState(intervalStart-1)).toList());
         for(var solution: conflictingSolutions){
             var state = solution.getState(intervalStart);
-            for(var i = 0; i < state.agents.size(); i++){
-                var agent = state.parent.agents.get(i);
+            for(var i = 0; i < state.agents().size(); i++){
+                var agent = state.parent.agents().get(i);
                 var action = state.jointAction[i];
                 var conflictingPosition = space.findConflictingPosition(mergedState, agent, action, intervalStart);
                 if(conflictingPosition.isEmpty()) continue;
@@ -171,10 +171,10 @@ public class ConflictChecker {
         var usedCells = new HashSet<Position>();
         for(var solution: conflictingSolutions){
             var state = solution.getState(intervalStart);
-            for(var agent: state.agents) {
+            for(var agent: state.agents()) {
                 if (!usedCells.add(agent.pos) && agent.pos == position) return true;
             }
-            for(var box: state.boxes) {
+            for(var box: state.boxes()) {
                 if (!usedCells.add(box.pos) && box.pos == position) return true;
             }
         }
@@ -187,8 +187,8 @@ public class ConflictChecker {
         var mergedState = space.shallowMerge(conflictingSolutions.stream().map(s -> s.getState(intervalStart-1)).toList());
         for(var solution: conflictingSolutions){
             var state = solution.getState(intervalStart);
-            for(var i = 0; i < state.agents.size(); i++){
-                var agent = state.parent.agents.get(i);
+            for(var i = 0; i < state.agents().size(); i++){
+                var agent = state.parent.agents().get(i);
                 var action = state.jointAction[i];
                 var conflictingPosition = space.findConflictingPosition(mergedState, agent, action, intervalStart);
                 if(conflictingPosition.isPresent()) return conflictingPosition;
@@ -202,10 +202,10 @@ public class ConflictChecker {
         var usedCells = new HashSet<Position>();
         for(var solution: conflictingSolutions){
             var state = solution.getState(intervalStart);
-            for(var agent: state.agents) {
+            for(var agent: state.agents()) {
                 if (!usedCells.add(agent.pos)) return Optional.of(agent.pos);
             }
-            for(var box: state.boxes) {
+            for(var box: state.boxes()) {
                 if (!usedCells.add(box.pos)) return Optional.of(box.pos);
             }
         }
@@ -229,8 +229,8 @@ public class ConflictChecker {
         for(var step = 1; step < solution.size(); step++) {
             var state = solution.getState(step);
             if (!space.isValid(state)) return Optional.of(step);
-            for (var i = 0; i < state.agents.size(); i++) {
-                if (!space.isApplicable(state.parent, state.parent.agents.get(i), state.jointAction[i])) {
+            for (var i = 0; i < state.agents().size(); i++) {
+                if (!space.isApplicable(state.parent, state.parent.agents().get(i), state.jointAction[i])) {
                     return Optional.of(step);
                 }
             }
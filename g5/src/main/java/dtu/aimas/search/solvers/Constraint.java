@@ -20,7 +20,11 @@ public class Constraint {
     }
 
     private String createKey(Agent agent, int timeStep){
-        return String.format("%c|%d", agent.label, timeStep);
+        return createKey(agent.label, timeStep);
+    }
+
+    private String createKey(char agentLabel, int timeStep){
+        return String.format("%c|%d", agentLabel, timeStep);
     }
 
     // TODO(5): checking can be done once and merged with extend
@@ -48,9 +52,16 @@ public class Constraint {
     }
 
     public boolean isReserved(Agent agent, Position position, int timeStep) {
-        var reservedPositions = constraints.get(createKey(agent, timeStep));
+        return isReserved(agent.label, position.cell(), timeStep);
+    }
+
+    public boolean isReserved(char agentLabel, int cell, int timeStep) {
+        var reservedPositions = constraints.get(createKey(agentLabel, timeStep));
         if (reservedPositions == null) return false;
-        return reservedPositions.stream().anyMatch(p -> p.equals(position));
+        for (var position : reservedPositions) {
+            if (position.cell() == cell) return true;
+        }
+        return false;
     }
     public List<Position> getReserved(Agent agent, int timeStep){
         return constraints.getOrDefault(createKey(agent, timeStep), new ArrayList<>());
@@ -56,8 +56,8 @@ public class SAOrderedSolver implements Solver {
                 var sol = (StateSolution)subSol.get();
                 solutions.add(sol);
                 //get the position of agent in last step
-                agents = sol.getState(sol.size()-1).agents;
-                boxes = sol.getState(sol.size()-1).boxes;
+                agents = sol.getState(sol.size()-1).agents();
+                boxes = sol.getState(sol.size()-1).boxes();
             }
             else {
                 return Result.error(subSol.getError());
@@ -29,7 +29,7 @@ public class SolutionChecker {
         if(!givenInitialState.equivalent(expectedInitialState)) return false;
 
         // each state must be from the action of the parent state, and valid
-        var agentCount = givenInitialState.agents.size();
+        var agentCount = givenInitialState.agents().size();
         for(var step = 1; step < solution.size(); step ++){
             var state = solution.getState(step);
             if(!space.isValid(state) || state.jointAction == null) return false;
@@ -38,7 +38,7 @@ public class SolutionChecker {
             var parent = state.parent;
             if(parent == null) return false;
             for(var i = 0; i < agentCount; i++){
-                var agent = parent.agents.get(i);
+                var agent = parent.agents().get(i);
                 var action = state.jointAction[i];
                 if(!space.isApplicable(parent, agent, action)) return false;
 
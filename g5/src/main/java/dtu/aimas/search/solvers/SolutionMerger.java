@@ -47,7 +47,7 @@ public class SolutionMerger {
             assert state.jointAction != null;
             if(Arrays.stream(state.jointAction).anyMatch(a -> a != Action.NoOp)) {
                 var parent = states.get(states.size()-1);
-                states.add(new State(parent, state.agents, state.boxes, state.jointAction));
+                states.add(new State(parent, state.agents(), state.boxes(), state.jointAction));
             }
         }
 
@@ -56,11 +56,11 @@ public class SolutionMerger {
 
     private static State combinedState(List<StateSolution> solutions, int step, State parent){
         var agents = solutions.stream()
-                .flatMap(s -> s.getState(Math.min(s.size()-1, step)).agents.stream())
+                .flatMap(s -> s.getState(Math.min(s.size()-1, step)).agents().stream())
                 .collect(Collectors.toCollection(ArrayList::new));
 
         var boxes = solutions.stream()
-                .flatMap(s -> s.getState(Math.min(s.size()-1,step)).boxes.stream())
+                .flatMap(s -> s.getState(Math.min(s.size()-1,step)).boxes().stream())
                 .collect(Collectors.toCollection(ArrayList::new));
 
         // Sort agents and joint actions the same
@@ -70,11 +70,11 @@ public class SolutionMerger {
         for(var solution: solutions){
             var solutionFinished = step >= solution.size();
             var state = solution.getState(Math.min(solution.size()-1, step));
-            for(var i = 0; i < state.agents.size(); i++){
-                agentArray[filled + i] = state.agents.get(i);
+            for(var i = 0; i < state.agents().size(); i++){
+                agentArray[filled + i] = state.agents().get(i);
                 jointAction[filled + i] = step == 0 || solutionFinished ? Action.NoOp : state.jointAction[i];
             }
-            filled += state.agents.size();
+            filled += state.agents().size();
         }
 
         var indices = IntStream.range(0, agents.size()).boxed().toArray(Integer[]::new);
@@ -113,7 +113,7 @@ public class SolutionMerger {
         for(StateSolution sol : solutions) {
             for(int i = 1; i < sol.size(); i++) {
                 State s = sol.getState(i);
-                states[step] = new State(states[step-1], s.agents, s.boxes, s.jointAction);
+                states[step] = new State(states[step-1], s.agents(), s.boxes(), s.jointAction);
                 step+=1;
             }
         }
@@ -34,11 +34,11 @@ public class IterativeBoxSolver implements Solver {
     private Result<Solution> solve(StateSpace space) {
         var fullProblem = space.getProblem();
         var initial = space.getInitialState();
-        assert initial.agents.size() == 1 : "Single agent solver";
+        assert initial.agents().size() == 1 : "Single agent solver";
         assert fullProblem.agentGoals.size() <= 1 : "Single agent solver";
 
-        var agents = initial.agents;
-        var boxes = initial.boxes;
+        var agents = initial.agents();
+        var boxes = initial.boxes();
         var solutions = new ArrayList<StateSolution>();
 
         IO.debug("solving boxes...");
@@ -62,8 +62,8 @@ public class IterativeBoxSolver implements Solver {
 
             // update agents and boxes to where they left off from previous solution
             var finalState = solution.getState(solution.size()-1);
-            agents = finalState.agents;
-            boxes = finalState.boxes;
+            agents = finalState.agents();
+            boxes = finalState.boxes();
         }
 
         IO.debug("solving agent...");
@@ -91,16 +91,16 @@ public class IterativeBoxSolver implements Solver {
             var start = solution.getState(0);
 
             // solution start should be end of last state
-            assert lastState.agents.equals(start.agents);
-            for(var box: lastState.boxes)
-                assert start.boxes.contains(box);
+            assert lastState.agents().equals(start.agents());
+            for(var box: lastState.boxes())
+                assert start.boxes().contains(box);
 
             // when merging the start state of the next solution is omitted
             for(var step = 1; step < solution.size(); step++){
                 var state = solution.getState(step);
 
                 // states are linked to update parent links and step counter
-                lastState = new State(lastState, state.agents, state.boxes, state.jointAction);
+                lastState = new State(lastState, state.agents(), state.boxes(), state.jointAction);
             }
         }
 
@@ -36,15 +36,15 @@ public class WalledFinishedBoxes implements Solver {
     private Result<Solution> solve(StateSpace space) {
         var fullProblem = space.getProblem();
         var initial = space.getInitialState();
-        assert initial.agents.size() <= 1 : "Single agent solver. Got %d agents".formatted(initial.agents.size());
+        assert initial.agents().size() <= 1 : "Single agent solver. Got %d agents".formatted(initial.agents().size());
         assert fullProblem.agentGoals.size() <= 1 : "Single agent solver. Got %d agent goals".formatted(fullProblem.agentGoals.size());
 
-        var agent = initial.agents.iterator().next();
+        var agent = initial.agents().iterator().next();
 
         ArrayList<StateSolution> solutions;
 
         // get box goals in solvable order
-        var boxGoals = getSolvablyOrderedBoxGoals(fullProblem.boxGoals, initial.agents, initial.boxes, fullProblem);
+        var boxGoals = getSolvablyOrderedBoxGoals(fullProblem.boxGoals, initial.agents(), initial.boxes(), fullProblem);
 
         while(true){
             var solutionGoalPair = solveBoxes(boxGoals, fullProblem, initial);
@@ -76,8 +76,6 @@ public class WalledFinishedBoxes implements Solver {
             }
         }
         
-        resetBoxColors(solutions, agent.color);
-
         // merge partial solutions
         IO.debug("Merging solutions...");
         var lastState = solutions.get(0).getLastState();
@@ -86,16 +84,17 @@ public class WalledFinishedBoxes implements Solver {
             var start = solution.getState(0);
 
             // solution start should be end of last state
-            assert lastState.agents.equals(start.agents);
-            for(var box: lastState.boxes)
-                assert start.boxes.contains(box);
+            assert lastState.agents().equals(start.agents());
+            for(var box: lastState.boxes())
+                assert restoreBoxColors(start.boxes(), agent.color).contains(box);
 
             // when merging the start state of the next solution is omitted
             for(var step = 1; step < solution.size(); step++){
                 var state = solution.getState(step);
 
                 // states are linked to update parent links and step counter
-                lastState = new State(lastState, state.agents, state.boxes, state.jointAction);
+                lastState = new State(lastState, state.agents(), restoreBoxColors(state.boxes(), agent.color),
+                        state.jointAction);
             }
         }
 
@@ -127,8 +126,10 @@ public class WalledFinishedBoxes implements Solver {
                 }
             }
             boolean solvableOrder = true;
+            // each problem is derived from the previous one, so its distances only need repairs around the new wall
+            var iterativeProblem = fullProblem;
             for(var boxGoal: boxGoals){
-                var iterativeProblem = fullProblem.copyWith(agents, boxes, subGoal, walls);
+                iterativeProblem = iterativeProblem.copyWith(agents, boxes, subGoal, walls);
                 if(!isSolvable(iterativeProblem, agents, boxes, boxGoal)){
                     solvableOrder = false;
                     boxGoals.remove(boxGoal);
@@ -141,22 +142,18 @@ public class WalledFinishedBoxes implements Solver {
         }
     }
 
-    private void resetBoxColors(ArrayList<StateSolution> solutions, Color color) {
-        for(var solution: solutions){
-            for(var i = 0; i < solution.size(); i++){
-                var state = solution.getState(i);
-                for(var box : state.boxes){
-                    if(box.color == Color.Mishmash){
-                        box.color = color;
-                    }
-                }
-            }
+    // Boxes of the solution states with the finished boxes given their color back, without touching the states
+    private static ArrayList<Box> restoreBoxColors(ArrayList<Box> boxes, Color color) {
+        var result = new ArrayList<Box>(boxes.size());
+        for(var box : boxes){
+            result.add(box.color == Color.Mishmash ? new Box(box.pos, color, box.label) : box);
         }
+        return result;
     }
 
     private SolutionGoalPair solveBoxes(Collection<Goal> boxGoals, Problem fullProblem, State initial) {
-        var agents = new ArrayList<>(initial.agents);
-        var boxes = new ArrayList<>(initial.boxes);
+        var agents = new ArrayList<>(initial.agents());
+        var boxes = new ArrayList<>(initial.boxes());
 
         IO.debug("solving boxes...");
         var subGoal = new char[fullProblem.goals.length][fullProblem.goals[0].length];
@@ -169,10 +166,11 @@ public class WalledFinishedBoxes implements Solver {
         }
 
         var solutions = new ArrayList<StateSolution>();
+        var iterativeProblem = fullProblem;
         for(var boxGoal: boxGoals){
             // add next box goal
             subGoal[boxGoal.destination.row][boxGoal.destination.col] = boxGoal.label;
-            var iterativeProblem = fullProblem.copyWith(agents, boxes, subGoal, walls);
+            iterativeProblem = iterativeProblem.copyWith(agents, boxes, subGoal, walls);
             IO.debug("#box goals: %d", iterativeProblem.boxGoals.size());
             IO.debug("problem:\n" + iterativeProblem.toString());
 
@@ -195,13 +193,14 @@ public class WalledFinishedBoxes implements Solver {
 
             // update agents and boxes to where they left off from previous solution
             var finalState = solution.getState(solution.size()-1);
-            agents = new ArrayList<>(finalState.agents);
-            boxes = new ArrayList<>(finalState.boxes);
+            agents = new ArrayList<>(finalState.agents());
+            boxes = new ArrayList<>(finalState.boxes());
 
-            // make finished box into a wall
-            for(var box: boxes){
+            // make finished box into a wall, replacing it since the boxes are shared with the solution states
+            for(var i = 0; i < boxes.size(); i++){
+                var box = boxes.get(i);
                 if(!box.pos.equals(boxGoal.destination)) continue;
-                box.color = Color.Mishmash;
+                boxes.set(i, new Box(box.pos, Color.Mishmash, box.label));
                 break;
             }
 
@@ -213,8 +212,13 @@ public class WalledFinishedBoxes implements Solver {
     }
 
     private Result<StateSolution> solveAgent(Goal agentGoal, Problem fullProblem, State initial) {
-        var agents = new ArrayList<>(initial.agents);
-        var boxes = new ArrayList<>(initial.boxes);
+        var agents = new ArrayList<>(initial.agents());
+        // finished boxes must stay where they are
+        var boxes = new ArrayList<Box>();
+        for(var box: initial.boxes()){
+            var finished = fullProblem.boxGoals.stream().anyMatch(g -> g.label == box.label && g.destination.equals(box.pos));
+            boxes.add(finished ? new Box(box.pos, Color.Mishmash, box.label) : box);
+        }
 
         IO.debug("solving agent...");
         var subGoal = new char[fullProblem.goals.length][fullProblem.goals[0].length];
@@ -233,7 +237,7 @@ public class WalledFinishedBoxes implements Solver {
         IO.debug("problem:\n" + iterativeProblem.toString());
 
         // check if agent did not close himself while solving all box goals (could be done earlier)
-        var solvable = isSolvable(iterativeProblem, initial.agents, agentGoal);
+        var solvable = isSolvable(iterativeProblem, initial.agents(), agentGoal);
         if(!solvable) return Result.empty();
 
         // solve partial solution
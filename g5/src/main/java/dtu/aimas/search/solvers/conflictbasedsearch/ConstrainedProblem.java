@@ -5,7 +5,7 @@ import java.util.List;
 
 import dtu.aimas.common.Agent;
 import dtu.aimas.common.Box;
-import dtu.aimas.common.Position;
+import dtu.aimas.search.DistanceOracle;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.Constraint;
 import lombok.Getter;
@@ -20,6 +20,12 @@ public class ConstrainedProblem extends Problem {
         this.constraint = constraint;
     }
 
+    private ConstrainedProblem(Collection<Agent> agentCollection, Collection<Box> boxCollection,
+        boolean[][] walls, char[][] goals, Constraint constraint, DistanceOracle distances) {
+        super(agentCollection, boxCollection, walls, goals, distances);
+        this.constraint = constraint;
+    }
+
     public ConstrainedProblem(Collection<Agent> agentCollection, Collection<Box> boxCollection,
         char[][] goals, ConstrainedProblem parent) {
         super(agentCollection, boxCollection, goals, parent);
@@ -27,11 +33,16 @@ public class ConstrainedProblem extends Problem {
     }
 
     public static ConstrainedProblem from(Problem parentProblem, Constraint constraint){
-        return new ConstrainedProblem(parentProblem.agents, parentProblem.boxes, parentProblem.walls, parentProblem.goals, constraint);
+        return new ConstrainedProblem(parentProblem.agents, parentProblem.boxes, parentProblem.walls, parentProblem.goals,
+                constraint, parentProblem.getDistances());
+    }
+
+    public boolean isTimeDependent() {
+        return true;
     }
 
-    public boolean isFree(Position pos, Agent agent, int timeStep) {
-        return super.isFree(pos, agent, timeStep) && !constraint.isReserved(agent, pos, timeStep);
+    public boolean isFree(int cell, char agentLabel, int timeStep) {
+        return super.isFree(cell, agentLabel, timeStep) && !constraint.isReserved(agentLabel, cell, timeStep);
     }
 
     public Problem copyWith(List<Agent> agents, List<Box> boxes, char[][] goals) {
@@ -0,0 +1,115 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.function.Consumer;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.SolutionNotFound;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.Solution;
+import dtu.aimas.search.solvers.Solver;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.WAStarHeuristic;
+import lombok.Getter;
+import lombok.Setter;
+
+// Anytime weighted A*: a first plan is found quickly with a high weight, then the search restarts with smaller weights
+// until the time limit, keeping the shortest plan found. States that cannot beat that plan are pruned, so later rounds
+// only explore what could still improve it: g at least its length, or g + h when the cost is admissible.
+// A round that runs out of states proves the plan optimal, and ends the search before the time limit, when the cost
+// is admissible or the weight is down to 1. Otherwise the weight keeps being lowered until the deadline.
+public class AnytimeWAStar implements Solver {
+    public static final double DEFAULT_WEIGHT = 5.0;
+    public static final double DEFAULT_WEIGHT_STEP = 1.0;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final Cost cost;
+    @Getter
+    private final double initialWeight;
+    @Getter
+    private final long timeLimitMs;
+    // Amount the weight is lowered by after every round, down to 1
+    @Setter
+    private double weightStep = DEFAULT_WEIGHT_STEP;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+    // Called with every plan shorter than the ones before it, e.g. to send it on before the search is over
+    @Setter
+    private Consumer<Solution> onImprovement = solution -> {};
+
+    public AnytimeWAStar(Cost cost, double initialWeight, long timeLimitMs) {
+        this.cost = cost;
+        this.initialWeight = Math.max(1.0, initialWeight);
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public Result<Solution> solve(Problem problem) {
+        return ProblemParser.parse(problem).flatMap(this::solve);
+    }
+
+    private Result<Solution> solve(StateSpace space) {
+        var deadline = System.nanoTime() + timeLimitMs * 1_000_000;
+        var successors = space.successors(false, operatorDecomposition);
+        Result<Solution> best = Result.error(new SolutionNotFound("Empty frontier"));
+        var bound = Integer.MAX_VALUE;
+        var weight = initialWeight;
+
+        while (true) {
+            // the first plan is searched for past the time limit, any plan beats none
+            var roundDeadline = bound == Integer.MAX_VALUE ? Long.MAX_VALUE : deadline;
+            var round = search(space, successors, new WAStarHeuristic(cost, weight), bound, roundDeadline);
+            if (round.goal != null && round.goal.g() < bound) {
+                bound = round.goal.g();
+                best = space.createSolution(round.goal);
+                IO.debug("Anytime WA* found a plan of length %d with weight %.2f", bound, weight);
+                best.ifOk(onImprovement::accept);
+            }
+            if (round.timedOut || bound == 0) break;
+            // an inadmissible cost may have led the round past shorter plans, only a weight of 1 rules them out,
+            // unless no plan was found at all
+            if (round.goal == null && (cost.isAdmissible() || weight == 1.0 || bound == Integer.MAX_VALUE)) break;
+            weight = Math.max(1.0, weight - weightStep);
+        }
+        return best;
+    }
+
+    // Best first search for a goal shorter than the bound, stopping at the first one found
+    private Round search(StateSpace space, SuccessorGenerator successors, WAStarHeuristic heuristic, int bound,
+                         long deadline) {
+        heuristic.attachStateSpace(space);
+        var initial = space.initialState();
+        if (lowerBound(initial, heuristic) >= bound) return new Round(null, false);
+        var nodes = new NodeTable(space.problem().isTimeDependent(), space.problem().expectedStateSize);
+        var frontier = new BucketFrontier(heuristic);
+        nodes.offer(initial);
+        frontier.add(initial);
+
+        var expanded = 0;
+        while (!frontier.isEmpty()) {
+            if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) return new Round(null, true);
+
+            var state = frontier.next();
+            if (nodes.isStale(state)) continue;
+            if (space.isGoalState(state)) return new Round(state, false);
+
+            nodes.close(state);
+            for (var child : successors.expand(state)) {
+                if (lowerBound(child, heuristic) >= bound) continue;
+                var previous = nodes.get(child);
+                if (nodes.offer(child) && (previous == null || !frontier.decreaseKey(previous, child))) {
+                    frontier.add(child);
+                }
+            }
+        }
+        return new Round(null, false);
+    }
+
+    // Length the plan through the state is known to have at least
+    private int lowerBound(State state, WAStarHeuristic heuristic) {
+        return cost.isAdmissible() ? state.g() + heuristic.h(state) : state.g();
+    }
+
+    private record Round(State goal, boolean timedOut) {}
+}
@@ -1,11 +1,9 @@
 package dtu.aimas.search.solvers.graphsearch;
 
 import java.util.ArrayDeque;
-import java.util.HashSet;
 
 public class BasicFrontier implements Frontier {
     private final ArrayDeque<State> queue = new ArrayDeque<>(65536);
-    private final HashSet<State> set = new HashSet<>(65536);
 
     private final boolean fifo;
     private BasicFrontier(boolean fifo){
@@ -21,7 +19,7 @@ public class BasicFrontier implements Frontier {
 
     public void add(State state) {
         queue.add(state);
-        set.add(state);
+        state.frontier = this;
     }
 
     public boolean isEmpty() {
@@ -29,12 +27,12 @@ public class BasicFrontier implements Frontier {
     }
 
     public boolean contains(State state) {
-        return set.contains(state);
+        return state.frontier == this;
     }
 
     public State next() {
         var state = this.fifo ? queue.pollFirst() : queue.pollLast();
-        set.remove(state);
+        if (state != null) state.frontier = null;
         return state;
     }
 
@@ -1,43 +1,102 @@
 package dtu.aimas.search.solvers.graphsearch;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 import dtu.aimas.search.solvers.heuristics.Heuristic;
 
+// Binary heap ordered by the heuristic. Every state knows its slot in the heap, so contains, decreaseKey and remove
+// work on the state itself in O(log n) without a set next to the heap.
 public class BestFirstFrontier implements Frontier {
-    private final PriorityQueue<State> queue;
-    private final HashSet<State> set; 
+    private final Heuristic heuristic;
+    private State[] heap;
+    private int size;
 
     public BestFirstFrontier(Heuristic h, int expectedStateSpaceSize){
-        this.queue = new PriorityQueue<>(expectedStateSpaceSize, h);
-        this.set = new HashSet<>(expectedStateSpaceSize);
+        this.heuristic = h;
+        this.heap = new State[Math.max(16, expectedStateSpaceSize)];
     }
 
-    public BestFirstFrontier(Heuristic h) { 
+    public BestFirstFrontier(Heuristic h) {
         this(h, 2<<15);
     }
 
     public void add(State state) {
-        queue.add(state);
-        set.add(state);
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        place(state, size++);
+        siftUp(state.frontierIndex);
     }
 
     public boolean isEmpty() {
-        return queue.isEmpty();
+        return size == 0;
     }
 
     public boolean contains(State state) {
-        return set.contains(state);
+        return state.frontier == this;
     }
 
     public State next() {
-        var state = queue.poll();
-        set.remove(state);
+        if (size == 0) return null;
+        var state = heap[0];
+        removeAt(0);
         return state;
     }
 
+    public boolean decreaseKey(State old, State replacement) {
+        if (!contains(old)) return false;
+        old.frontier = null;
+        place(replacement, old.frontierIndex);
+        siftUp(replacement.frontierIndex);
+        siftDown(replacement.frontierIndex);
+        return true;
+    }
+
+    public boolean remove(State state) {
+        if (!contains(state)) return false;
+        removeAt(state.frontierIndex);
+        return true;
+    }
+
     public int size(){
-        return queue.size();
+        return size;
+    }
+
+    private void removeAt(int index) {
+        heap[index].frontier = null;
+        var last = heap[--size];
+        heap[size] = null;
+        if (index == size) return;
+        place(last, index);
+        siftUp(index);
+        siftDown(last.frontierIndex);
+    }
+
+    private void siftUp(int index) {
+        var state = heap[index];
+        while (index > 0) {
+            var parent = (index - 1) >>> 1;
+            if (heuristic.compare(state, heap[parent]) >= 0) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(state, index);
+    }
+
+    private void siftDown(int index) {
+        var state = heap[index];
+        var half = size >>> 1;
+        while (index < half) {
+            var child = 2 * index + 1;
+            if (child + 1 < size && heuristic.compare(heap[child + 1], heap[child]) < 0) child++;
+            if (heuristic.compare(state, heap[child]) <= 0) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(state, index);
+    }
+
+    private void place(State state, int index) {
+        heap[index] = state;
+        state.frontier = this;
+        state.frontierIndex = index;
     }
 }
@@ -0,0 +1,147 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import dtu.aimas.search.solvers.heuristics.Heuristic;
+
+// Best first frontier for the small integer f values of our heuristics, in constant amortized time per operation.
+// States are kept in buckets indexed by f and then by h, so among equal f the states closest to a goal, the deepest
+// for A*, come first, and among equal f and h the most recently added. The lowest possibly non-empty bucket is tracked
+// with cursors that only move back when a state is added below them.
+// States with negative f or f of MAX_BUCKETED and above, e.g. from unreachable distances, are kept in a priority queue
+// with the same order instead.
+public class BucketFrontier implements Frontier {
+    private static final int MAX_BUCKETED = 1 << 14;
+
+    private final Heuristic heuristic;
+    private final PriorityQueue<State> overflow;
+    // buckets[f][h], created when first used
+    private Bucket[][] buckets = new Bucket[64][];
+    private int[] rowSizes = new int[64];
+    private int[] lowestH = new int[64];
+    private int lowestF = Integer.MAX_VALUE;
+    private int bucketed = 0;
+
+    public BucketFrontier(Heuristic heuristic) {
+        this.heuristic = heuristic;
+        this.overflow = new PriorityQueue<>(Comparator.<State>comparingInt(heuristic::f).thenComparingInt(heuristic::h));
+        Arrays.fill(lowestH, Integer.MAX_VALUE);
+    }
+
+    public void add(State state) {
+        state.frontier = this;
+        var f = heuristic.f(state);
+        if (f < 0 || f >= MAX_BUCKETED) {
+            state.frontierIndex = -1;
+            overflow.add(state);
+            return;
+        }
+        var h = clampH(heuristic.h(state));
+
+        bucketFor(f, h).push(state);
+        rowSizes[f]++;
+        lowestH[f] = Math.min(lowestH[f], h);
+        lowestF = Math.min(lowestF, f);
+        bucketed++;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(State state) {
+        return state.frontier == this;
+    }
+
+    public State next() {
+        if (!overflow.isEmpty() && (bucketed == 0 || heuristic.f(overflow.peek()) < 0)) return leave(overflow.poll());
+        if (bucketed == 0) return null;
+
+        while (rowSizes[lowestF] == 0) lowestF++;
+        var row = buckets[lowestF];
+        while (row[lowestH[lowestF]] == null || row[lowestH[lowestF]].isEmpty()) lowestH[lowestF]++;
+
+        rowSizes[lowestF]--;
+        bucketed--;
+        return leave(row[lowestH[lowestF]].pop());
+    }
+
+    // Swaps the cheaper state in for one in the buckets, states in the overflow queue are not looked up
+    public boolean decreaseKey(State old, State replacement) {
+        if (!contains(old) || old.frontierIndex < 0) return false;
+        var f = heuristic.f(old);
+        buckets[f][clampH(heuristic.h(old))].removeAt(old.frontierIndex);
+        rowSizes[f]--;
+        bucketed--;
+        leave(old);
+        add(replacement);
+        return true;
+    }
+
+    public int size() {
+        return bucketed + overflow.size();
+    }
+
+    private State leave(State state) {
+        state.frontier = null;
+        return state;
+    }
+
+    private static int clampH(int h) {
+        return Math.max(0, Math.min(h, MAX_BUCKETED - 1));
+    }
+
+    private Bucket bucketFor(int f, int h) {
+        if (f >= buckets.length) {
+            var length = Math.min(MAX_BUCKETED, Math.max(buckets.length * 2, f + 1));
+            buckets = Arrays.copyOf(buckets, length);
+            rowSizes = Arrays.copyOf(rowSizes, length);
+            var previous = lowestH.length;
+            lowestH = Arrays.copyOf(lowestH, length);
+            Arrays.fill(lowestH, previous, length, Integer.MAX_VALUE);
+        }
+        var row = buckets[f];
+        if (row == null) {
+            row = new Bucket[Math.max(16, h + 1)];
+            buckets[f] = row;
+        } else if (h >= row.length) {
+            row = Arrays.copyOf(row, Math.min(MAX_BUCKETED, Math.max(row.length * 2, h + 1)));
+            buckets[f] = row;
+        }
+        if (row[h] == null) row[h] = new Bucket();
+        return row[h];
+    }
+
+    // Stack of states sharing f and h
+    private static final class Bucket {
+        private State[] states = new State[8];
+        private int size = 0;
+
+        void push(State state) {
+            if (size == states.length) states = Arrays.copyOf(states, size * 2);
+            state.frontierIndex = size;
+            states[size++] = state;
+        }
+
+        State pop() {
+            var state = states[--size];
+            states[size] = null;
+            return state;
+        }
+
+        // Fills the slot with the top state, which then comes out after the states below it
+        void removeAt(int index) {
+            var last = states[--size];
+            states[size] = null;
+            if (index == size) return;
+            states[index] = last;
+            last.frontierIndex = index;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
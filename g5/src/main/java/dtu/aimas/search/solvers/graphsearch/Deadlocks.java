@@ -0,0 +1,94 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.HashMap;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Box;
+import dtu.aimas.common.Position;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.Problem;
+
+// Detects states that can never be solved because of where their boxes are.
+// Dead squares: a box in a cell from which no goal of its label can be reached by pushes and pulls (Problem.boxDist).
+// Frozen boxes: a group of adjacent boxes without a single free cell around it, which no agent can ever reach.
+// A frozen box on a goal of another label blocks it for good. Boxes that are dead or frozen away from their goals only
+// make a state unsolvable once too few boxes of their label are left for its goals, so extra boxes may still be parked.
+// A pull undoes a push and the moving agent always ends next to its box, so moves never make a box dead or frozen,
+// and checking the initial state of a search finds every such deadlock.
+final class Deadlocks {
+    private final Problem problem;
+    private final int height;
+    private final int width;
+
+    Deadlocks(Problem problem) {
+        this.problem = problem;
+        this.height = problem.walls.length;
+        this.width = height == 0 ? 0 : problem.walls[0].length;
+    }
+
+    boolean isDeadlocked(State state) {
+        var frozen = new boolean[state.boxCount()];
+        var visited = new boolean[state.boxCount()];
+        for (var slot = 0; slot < state.boxCount(); slot++) {
+            if (!visited[slot] && blocksGoal(state, slot, frozen, visited)) return true;
+        }
+
+        var missing = new HashMap<Character, Integer>();
+        for (var goal : problem.boxGoals) missing.merge(goal.label, 1, Integer::sum);
+        for (var slot = 0; slot < state.boxCount(); slot++) {
+            var label = state.boxLabel(slot);
+            if (!missing.containsKey(label)) continue;
+            var cell = state.boxCell(slot);
+            var usable = frozen[slot] ? goalAt(cell) == label : reachesGoal(cell, label);
+            if (usable) missing.merge(label, -1, Integer::sum);
+        }
+        return missing.values().stream().anyMatch(count -> count > 0);
+    }
+
+    // Marks the group of the box as frozen if nothing can reach it, true if a frozen box blocks the goal of another label
+    private boolean blocksGoal(State state, int start, boolean[] frozen, boolean[] visited) {
+        var group = new int[state.boxCount()];
+        var size = 0;
+        var free = false;
+        group[size++] = start;
+        visited[start] = true;
+        for (var i = 0; i < size; i++) {
+            var cell = state.boxCell(group[i]);
+            for (var direction = 0; direction < 4; direction++) {
+                var row = Position.rowOf(cell) + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+                var col = Position.colOf(cell) + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+                if (row < 0 || row >= height || col < 0 || col >= width || problem.walls[row][col]) continue;
+                // agents can always step aside, so their cells count as free
+                var box = state.boxSlotAt(Position.cell(row, col));
+                if (box < 0) {
+                    free = true;
+                } else if (!visited[box]) {
+                    visited[box] = true;
+                    group[size++] = box;
+                }
+            }
+        }
+        if (free) return false;
+
+        for (var i = 0; i < size; i++) {
+            var box = group[i];
+            frozen[box] = true;
+            var goal = goalAt(state.boxCell(box));
+            if ((Box.isLabel(goal) || Agent.isLabel(goal)) && goal != state.boxLabel(box)) return true;
+        }
+        return false;
+    }
+
+    // False on a dead square of the label
+    private boolean reachesGoal(int cell, char label) {
+        for (var goal : problem.boxGoals) {
+            if (goal.label != label) continue;
+            if (problem.boxDist(cell, goal.destination.cell()) != DistanceOracle.UNREACHABLE) return true;
+        }
+        return false;
+    }
+
+    private char goalAt(int cell) {
+        return problem.goals[Position.rowOf(cell)][Position.colOf(cell)];
+    }
+}
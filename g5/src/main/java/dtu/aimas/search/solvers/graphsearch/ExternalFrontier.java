@@ -0,0 +1,195 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+
+import dtu.aimas.communication.IO;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.solvers.heuristics.Heuristic;
+
+// Best first frontier for searches whose open states do not fit in memory.
+// At most maxInMemory states are kept in an in-memory head. When it fills up its worse half is written, sorted by f
+// and h, as a run to a memory-mapped temporary file, and next merges the head with the first record of every run.
+// A record holds the cells and actions of a state and the index of its parent, which has been expanded and stays in
+// memory, so the state is rebuilt as it was when read back.
+// Duplicates are not detected when spilled, the search has to check polled states against its expanded ones.
+// If a run cannot be written the states stay in memory.
+public class ExternalFrontier implements Frontier {
+    private static final Action[] ACTIONS = Action.values();
+
+    private final Heuristic heuristic;
+    private final int maxInMemory;
+    private final Path directory;
+    private final PriorityQueue<State> head;
+    private final PriorityQueue<Run> runs;
+    // expanded states referenced by spilled records
+    private final ArrayList<State> parents = new ArrayList<>();
+    private final IdentityHashMap<State, Integer> parentIds = new IdentityHashMap<>();
+    private int agentCount = -1;
+    private int boxCount;
+    private int recordBytes;
+    private int spilled;
+    private boolean spilling = true;
+
+    // Runs are created in the directory, or in the default temporary directory if it is null
+    public ExternalFrontier(Heuristic heuristic, int maxInMemory, Path directory) {
+        this.heuristic = heuristic;
+        this.maxInMemory = Math.max(2, maxInMemory);
+        this.directory = directory;
+        this.head = new PriorityQueue<>(Comparator.<State>comparingInt(heuristic::f).thenComparingInt(heuristic::h));
+        this.runs = new PriorityQueue<>(Comparator.<Run>comparingInt(Run::f).thenComparingInt(Run::h));
+    }
+
+    public void add(State state) {
+        head.add(state);
+        state.frontier = this;
+        if (spilling && head.size() > maxInMemory) spill();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Only states in memory can be found
+    public boolean contains(State state) {
+        return state.frontier == this;
+    }
+
+    public State next() {
+        var run = runs.peek();
+        if (run == null || !head.isEmpty() && compare(head.peek(), run) <= 0) {
+            var state = head.poll();
+            if (state != null) state.frontier = null;
+            return state;
+        }
+
+        runs.poll();
+        var state = run.read();
+        spilled--;
+        if (!run.isEmpty()) runs.add(run);
+        return state;
+    }
+
+    public int size() {
+        return head.size() + spilled;
+    }
+
+    // Number of states currently on disk
+    public int spilledCount() {
+        return spilled;
+    }
+
+    private int compare(State state, Run run) {
+        var byF = Integer.compare(heuristic.f(state), run.f());
+        return byF != 0 ? byF : Integer.compare(heuristic.h(state), run.h());
+    }
+
+    // Writes the worse half of the head to a new run. States without a parent cannot be rebuilt and stay in memory.
+    private void spill() {
+        var keep = new ArrayList<State>(maxInMemory / 2 + 1);
+        while (keep.size() < maxInMemory / 2) keep.add(head.poll());
+        var worse = new ArrayList<State>(head.size());
+        while (!head.isEmpty()) {
+            var state = head.poll();
+            if (state.parent == null) keep.add(state);
+            else worse.add(state);
+        }
+        head.addAll(keep);
+        if (worse.isEmpty()) return;
+
+        try {
+            runs.add(write(worse));
+            spilled += worse.size();
+            for (var state : worse) state.frontier = null;
+        } catch (IOException e) {
+            IO.warn("Could not spill the frontier, keeping it in memory: %s", e.getMessage());
+            spilling = false;
+            head.addAll(worse);
+        }
+    }
+
+    private Run write(ArrayList<State> states) throws IOException {
+        if (agentCount < 0) {
+            agentCount = states.get(0).agentCells.length;
+            boxCount = states.get(0).boxCells.length;
+            // f, h, parent, decomposed agents, zobrist, cells and one byte per action
+            recordBytes = 4 * Integer.BYTES + Long.BYTES + (agentCount + boxCount) * Integer.BYTES + agentCount;
+        }
+
+        var file = directory == null
+                ? Files.createTempFile("frontier", ".run")
+                : Files.createTempFile(Files.createDirectories(directory), "frontier", ".run");
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordBytes * states.size());
+            for (var state : states) {
+                buffer.putInt(heuristic.f(state)).putInt(heuristic.h(state)).putInt(parentId(state.parent));
+                buffer.putInt(state.getDecomposedAgents()).putLong(state.getZobrist());
+                for (var cell : state.agentCells) buffer.putInt(cell);
+                for (var cell : state.boxCells) buffer.putInt(cell);
+                for (var action : state.jointAction) buffer.put((byte) (action == null ? -1 : action.ordinal()));
+            }
+            return new Run(buffer.flip(), states.size());
+        } finally {
+            // the mapping stays valid after the file is gone, so nothing is left behind
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private int parentId(State parent) {
+        var id = parentIds.get(parent);
+        if (id != null) return id;
+        parentIds.put(parent, parents.size());
+        parents.add(parent);
+        return parents.size() - 1;
+    }
+
+    // Records sorted by f and h, read front to back
+    private final class Run {
+        private final MappedByteBuffer buffer;
+        private int remaining;
+
+        Run(MappedByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.remaining = count;
+        }
+
+        int f() {
+            return buffer.getInt(buffer.position());
+        }
+
+        int h() {
+            return buffer.getInt(buffer.position() + Integer.BYTES);
+        }
+
+        boolean isEmpty() {
+            return remaining == 0;
+        }
+
+        State read() {
+            remaining--;
+            buffer.getInt();
+            buffer.getInt();
+            var parent = parents.get(buffer.getInt());
+            var decomposedAgents = buffer.getInt();
+            var zobrist = buffer.getLong();
+            var agentCells = new int[agentCount];
+            var boxCells = new int[boxCount];
+            for (var i = 0; i < agentCount; i++) agentCells[i] = buffer.getInt();
+            for (var i = 0; i < boxCount; i++) boxCells[i] = buffer.getInt();
+            var jointAction = new Action[agentCount];
+            for (var i = 0; i < agentCount; i++) {
+                var ordinal = buffer.get();
+                jointAction[i] = ordinal < 0 ? null : ACTIONS[ordinal];
+            }
+            return new State(parent, agentCells, boxCells, zobrist, jointAction, decomposedAgents);
+        }
+    }
+}
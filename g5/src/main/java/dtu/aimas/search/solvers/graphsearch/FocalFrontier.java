@@ -3,88 +3,88 @@ package dtu.aimas.search.solvers.graphsearch;
 import dtu.aimas.search.solvers.heuristics.Heuristic;
 import dtu.aimas.search.solvers.heuristics.WAStarHeuristic;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.PriorityQueue;
+import java.util.TreeMap;
 
+// Open is split in two disjoint parts: focal, the states within w * fMin, and the states waiting for the bound to
+// grow, bucketed by f. Raising the bound moves the newly admitted buckets over, so every state is admitted once
+// and states are only ever removed from the head of focal.
 public class FocalFrontier implements Frontier {
-    private final PriorityQueue<State> open;
+    private final TreeMap<Integer, ArrayList<State>> waiting;
     private final PriorityQueue<State> focal;
-    private final HashSet<State> set; 
     private final Heuristic heuristic;
     private final double w;
     private double fMin;
+    private int waitingCount;
 
     public FocalFrontier(Heuristic h, int expectedStateSpaceSize){
-        this.open = new PriorityQueue<>(expectedStateSpaceSize, h);
+        this.waiting = new TreeMap<>();
         this.focal = new PriorityQueue<>(expectedStateSpaceSize, h);
-        this.set = new HashSet<>(expectedStateSpaceSize);
         this.heuristic = h;
         this.w = ((WAStarHeuristic)h).getW();
         this.fMin = Double.MAX_VALUE;
+        this.waitingCount = 0;
     }
 
     public void add(State state) {
         assert state != null;
-        open.add(state);
-        set.add(state);
-        if(heuristic.f(state) <= w * fMin){
+        state.frontier = this;
+        var f = heuristic.f(state);
+        if(f <= w * fMin){
             focal.add(state);
+        } else {
+            waiting.computeIfAbsent(f, k -> new ArrayList<>()).add(state);
+            waitingCount++;
         }
     }
 
     public boolean isEmpty() {
-        return focal.isEmpty();
+        return size() == 0;
     }
 
     public boolean contains(State state) {
-        return set.contains(state);
+        return state.frontier == this;
     }
 
     public State next() {
+        if(focal.isEmpty()) admitLowest();
         var state = focal.poll();
-        open.remove(state);
-        set.remove(state);
+        if(state != null) state.frontier = null;
         return state;
     }
 
+    // Moves the waiting states within the bound of the current fMin to focal, only visiting those
     public void fillFocal() {
-        if (open.isEmpty()) return;
-        // todo : This should be true
-//        assert focal.size() <= open.size() : "Focal should be a subset of open";
+        if (waiting.isEmpty()) return;
+        updateFMin();
 
-        if(fMin >= heuristic.f(open.peek())) return;
-        double oldB = w * fMin;
-        double newB = w * heuristic.f(open.peek());
-
-        for(var state: open){
-            int f = heuristic.f(state);
-            if(f > oldB && f <= newB){
-//                assert !focal.contains(state) : "State should not already be in focal";
-                focal.add(state);
-            }
+        var admitted = waiting.headMap((int)Math.floor(w * fMin), true);
+        for(var bucket : admitted.values()){
+            focal.addAll(bucket);
+            waitingCount -= bucket.size();
         }
-//        var openCopy = new PriorityQueue<>(open);
-//        while(true){
-//            if(openCopy.isEmpty()) break;
-//            var state = openCopy.poll();
-//            var f = heuristic.f(state);
-//            // case: state already in focal -> skip
-//            if(f <= oldB) continue;
-//            // case: state exceeds new bound -> stop
-//            if(f > newB) break;
-//            // case: state within bound and not in focal -> add
-//            assert !focal.contains(state) : "State should not already be in focal";
-//            focal.add(state);
-//        }
+        admitted.clear();
     }
 
     public void updateFMin()  {
-        assert !open.isEmpty() : "Open should not be empty";
-        this.fMin = heuristic.f(open.peek());
+        assert !isEmpty() : "Open should not be empty";
+        var min = Integer.MAX_VALUE;
+        if(!focal.isEmpty()) min = heuristic.f(focal.peek());
+        if(!waiting.isEmpty()) min = Math.min(min, waiting.firstKey());
+        this.fMin = min;
+    }
+
+    // With w below one the bound can exclude even the best state, which then goes to focal regardless
+    private void admitLowest() {
+        var lowest = waiting.pollFirstEntry();
+        if(lowest == null) return;
+        focal.addAll(lowest.getValue());
+        waitingCount -= lowest.getValue().size();
     }
 
     @Override
     public int size() {
-        return open.size();
+        return focal.size() + waitingCount;
     }
 }
@@ -1,16 +1,22 @@
 package dtu.aimas.search.solvers.graphsearch;
 
-import java.util.HashSet;
-
 import dtu.aimas.common.Result;
 import dtu.aimas.errors.SolutionNotFound;
 import dtu.aimas.parsers.ProblemParser;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solutions.Solution;
 import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Setter;
 
 public abstract class FocalGraphSearch
 {
+    // Expand children in a fixed order instead of shuffling them
+    @Setter
+    private boolean deterministicSuccessors = false;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+
     public Result<Solution> solve(Problem problem, Heuristic heuristic) {
         return ProblemParser.parse(problem)
             .map(heuristic::attachStateSpace)
@@ -19,8 +25,10 @@ public abstract class FocalGraphSearch
     
     private Result<Solution> solve(StateSpace space, FocalFrontier frontier)
     {
+        var nodes = new NodeTable(space.problem().isTimeDependent(), space.problem().expectedStateSize);
+        var successors = space.successors(deterministicSuccessors, operatorDecomposition);
+        nodes.offer(space.initialState());
         frontier.add(space.initialState());
-        HashSet<State> expanded = new HashSet<>();
 
         while (true)
         {
@@ -31,12 +39,17 @@ public abstract class FocalGraphSearch
             frontier.updateFMin();
 
             State state = frontier.next();
+            if(nodes.isStale(state)) {
+                frontier.fillFocal();
+                continue;
+            }
+
             if(space.isGoalState(state)) 
                 return space.createSolution(state);
 
-            expanded.add(state);
-            for (State child : space.expand(state)) {
-                if (!frontier.contains(child) && !expanded.contains(child)){
+            nodes.close(state);
+            for (State child : successors.expand(state)) {
+                if (nodes.offer(child)){
                     frontier.add(child);
                 }
             }
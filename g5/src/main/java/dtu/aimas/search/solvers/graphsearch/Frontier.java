@@ -1,10 +1,16 @@
 package dtu.aimas.search.solvers.graphsearch;
 
-public interface Frontier 
+public interface Frontier
 {
     void add(State initialState);
     boolean isEmpty();
     boolean contains(State child);
     State next();
     int size();
+
+    // Puts a cheaper state of the same node in place of one still in the frontier.
+    // Returns false if the frontier cannot, the replacement should then be added and the old state skipped as stale.
+    default boolean decreaseKey(State old, State replacement) {
+        return false;
+    }
 }
@@ -1,7 +1,5 @@
 package dtu.aimas.search.solvers.graphsearch;
 
-import java.util.HashSet;
-
 import dtu.aimas.common.Result;
 import dtu.aimas.communication.IO;
 import dtu.aimas.errors.SolutionNotFound;
@@ -9,13 +7,40 @@ import dtu.aimas.parsers.ProblemParser;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solutions.Solution;
 import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Setter;
+
+import java.nio.file.Path;
 
 public abstract class GraphSearch
 {
+    // Expand children in a fixed order instead of shuffling them
+    @Setter
+    private boolean deterministicSuccessors = false;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+    // Let a single agent traverse an empty corridor in one expansion
+    @Setter
+    private boolean macroMoves = false;
+    // Give up on levels with boxes that can never reach enough goals, see Deadlocks.
+    // Only worth turning off to measure its effect.
+    @Setter
+    private boolean deadlockPruning = true;
+    // Order the frontier with a binary heap on the heuristic instead of f and h buckets
+    @Setter
+    private boolean heapFrontier = false;
+    // Keep at most this many open states in memory and spill the rest to temporary files, 0 to keep all of them.
+    // Duplicates are then only detected when a state is polled, see ExternalFrontier.
+    @Setter
+    private int spillThreshold = 0;
+    // Directory of the spilled files, null for the default temporary directory
+    @Setter
+    private Path spillDirectory;
+
     public Result<Solution> solve(Problem problem, Heuristic heuristic) {
         return ProblemParser.parse(problem)
             .map(heuristic::attachStateSpace)
-            .flatMap(space -> solve(space, new BestFirstFrontier(heuristic, problem.expectedStateSize)));
+            .flatMap(space -> solve(space, frontierFor(heuristic, problem)));
     }
 
     public Result<Solution> solve(Problem problem, BasicFrontier frontier) 
@@ -24,12 +49,25 @@ public abstract class GraphSearch
                 .flatMap(space -> solve(space, frontier));
     }
 
+    private Frontier frontierFor(Heuristic heuristic, Problem problem) {
+        if (spillThreshold > 0) return new ExternalFrontier(heuristic, spillThreshold, spillDirectory);
+        if (heapFrontier) return new BestFirstFrontier(heuristic, problem.expectedStateSize);
+        return new BucketFrontier(heuristic);
+    }
+
     private static long startTime = System.nanoTime();
     
     private Result<Solution> solve(StateSpace space, Frontier frontier)
     {
+        var nodes = new NodeTable(space.problem().isTimeDependent(), space.problem().expectedStateSize);
+        var successors = space.successors(deterministicSuccessors, operatorDecomposition, macroMoves);
+        if (deadlockPruning && new Deadlocks(space.problem()).isDeadlocked(space.initialState()))
+            return Result.error(new SolutionNotFound("Initial state is deadlocked"));
+
+        // open states on disk are not in the node table, which then only records expanded states
+        var delayedDuplicates = frontier instanceof ExternalFrontier;
+        if (!delayedDuplicates) nodes.offer(space.initialState());
         frontier.add(space.initialState());
-        HashSet<State> expanded = new HashSet<>();
 
         int iterations = 0;
         startTime = System.nanoTime();
@@ -37,29 +75,36 @@ public abstract class GraphSearch
         {
             //Print a status message every 10000 iteration
             if (++iterations % 10000 == 0) {
-                IO.debug(getSearchStatus(expanded, frontier));
+                IO.debug(getSearchStatus(nodes, frontier));
             }
 
             if(frontier.isEmpty()) 
                 return Result.error(new SolutionNotFound("Empty frontier"));
 
             State state = frontier.next();
+            // a cheaper path to the same node was found after this state was added, or when duplicates are delayed,
+            // the node was already expanded at no larger g
+            if(delayedDuplicates ? !nodes.offer(state) : nodes.isStale(state)) continue;
+
             if(space.isGoalState(state)) 
                 return space.createSolution(state);
 
-            expanded.add(state);
-            for (State child : space.expand(state)) {
-                if (!frontier.contains(child) && !expanded.contains(child)){
+            nodes.close(state);
+            for (State child : successors.expand(state)) {
+                var previous = nodes.get(child);
+                if (delayedDuplicates) {
+                    if (previous == null || child.g() < previous.g()) frontier.add(child);
+                } else if (nodes.offer(child) && (previous == null || !frontier.decreaseKey(previous, child))){
                     frontier.add(child);
                 }
             }
         }
     }
 
-    private static String getSearchStatus(HashSet<State> expanded, Frontier frontier)
+    private static String getSearchStatus(NodeTable nodes, Frontier frontier)
     {
         String statusTemplate = "#Expanded: %,8d, #Frontier: %,8d, #Generated: %,8d, Time: %3.3f s\n";
         double elapsedTime = (System.nanoTime() - startTime) / 1_000_000_000d;
-        return String.format(statusTemplate, expanded.size(), frontier.size(), expanded.size() + frontier.size(), elapsedTime);
+        return String.format(statusTemplate, nodes.closedCount(), frontier.size(), nodes.size(), elapsedTime);
     }
 }
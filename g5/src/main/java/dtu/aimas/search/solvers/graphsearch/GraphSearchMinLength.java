@@ -9,11 +9,20 @@ import dtu.aimas.search.solutions.Solution;
 import dtu.aimas.search.solvers.heuristics.Cost;
 import dtu.aimas.search.solvers.heuristics.DefaultCost;
 import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Setter;
 
-import java.util.HashSet;
 import java.util.stream.IntStream;
 
 public abstract class GraphSearchMinLength {
+    // Expand children in a fixed order instead of shuffling them
+    @Setter
+    private boolean deterministicSuccessors = false;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+    // Order the frontier with a binary heap on the heuristic instead of f and h buckets
+    @Setter
+    private boolean heapFrontier = false;
     private Cost cost;
     private Action[] noopAction;
 
@@ -22,7 +31,7 @@ public abstract class GraphSearchMinLength {
         this.noopAction = IntStream.range(0, problem.agents.size()).mapToObj(a -> Action.NoOp).toArray(Action[]::new);
         return ProblemParser.parse(problem)
                 .map(heuristic::attachStateSpace)
-                .flatMap(space -> solve(space, new BestFirstFrontier(heuristic, problem.expectedStateSize), minSolutionLength));
+                .flatMap(space -> solve(space, frontierFor(heuristic, problem), minSolutionLength));
     }
 
     public Result<Solution> solve(Problem problem, BasicFrontier frontier, int minSolutionLength)
@@ -33,10 +42,19 @@ public abstract class GraphSearchMinLength {
                 .flatMap(space -> solve(space, frontier, minSolutionLength));
     }
 
+    private Frontier frontierFor(Heuristic heuristic, Problem problem) {
+        if (heapFrontier) return new BestFirstFrontier(heuristic, problem.expectedStateSize);
+        return new BucketFrontier(heuristic);
+    }
+
     private Result<Solution> solve(StateSpace space, Frontier frontier, int minSolutionLength)
     {
+        // goal acceptance depends on the step when a minimum length is required
+        var timeDependent = space.problem().isTimeDependent() || minSolutionLength > 0;
+        var nodes = new NodeTable(timeDependent, space.problem().expectedStateSize);
+        var successors = space.successors(deterministicSuccessors, operatorDecomposition);
+        nodes.offer(space.initialState());
         frontier.add(space.initialState());
-        HashSet<State> expanded = new HashSet<>();
 
         while (true)
         {
@@ -44,6 +62,8 @@ public abstract class GraphSearchMinLength {
                 return Result.error(new SolutionNotFound("Empty frontier"));
 
             State state = frontier.next();
+            if(nodes.isStale(state)) continue;
+
             if(space.isGoalState(state)){
                 // If a short path is found which has future problems, expanding it now will block the goal state for
                 // other paths, therefore this state is ignored.
@@ -57,9 +77,10 @@ public abstract class GraphSearchMinLength {
                 return space.createSolution(state);
             }
 
-            expanded.add(state);
-            for (State child : space.expand(state)) {
-                if (!frontier.contains(child) && !expanded.contains(child)){
+            nodes.close(state);
+            for (State child : successors.expand(state)) {
+                var previous = nodes.get(child);
+                if (nodes.offer(child) && (previous == null || !frontier.decreaseKey(previous, child))){
                     frontier.add(child);
                 }
             }
@@ -76,6 +97,6 @@ public abstract class GraphSearchMinLength {
     }
 
     private State staticChild(State parent) {
-        return new State(parent, parent.agents, parent.boxes, noopAction);
+        return new State(parent, parent.agentCells, parent.boxCells, parent.getZobrist(), noopAction);
     }
 }
@@ -0,0 +1,211 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.SolutionNotFound;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.Solution;
+import dtu.aimas.search.solvers.Solver;
+import dtu.aimas.search.solvers.heuristics.AStarHeuristic;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Getter;
+import lombok.Setter;
+
+// Hash distributed best first search.
+// Every state is owned by one worker, chosen by its zobrist key, which keeps the open list and node table for it.
+// Generated children are sent to their owner through lock-free queues, so no table is ever shared between threads.
+// The first goal found is not necessarily the best one, so workers continue until every remaining state has an
+// f no better than the incumbent goal. The search ends when no state is left in any queue or open list.
+public class HDAStar implements Solver {
+    // Empty polls an idle worker spins for before it starts parking, and the longest it then parks for
+    private static final int IDLE_SPINS = 64;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final Heuristic heuristic;
+    @Getter
+    private final int workerCount;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+
+    public HDAStar(Heuristic heuristic, int workerCount){
+        if (workerCount < 1) throw new IllegalArgumentException("At least one worker is required");
+        if (heuristic.getCache() != null) throw new IllegalArgumentException("The heuristic cache is not thread safe");
+        this.heuristic = heuristic;
+        this.workerCount = workerCount;
+    }
+
+    public HDAStar(Cost cost, int workerCount){
+        this(new AStarHeuristic(cost), workerCount);
+    }
+
+    public HDAStar(Cost cost){
+        this(cost, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Result<Solution> solve(Problem problem) {
+        heuristic.reset();
+        return ProblemParser.parse(problem)
+                .map(heuristic::attachStateSpace)
+                .flatMap(this::solve);
+    }
+
+    private Result<Solution> solve(StateSpace space) {
+        var search = new Search(space);
+        var threads = new Thread[workerCount];
+        for (var i = 0; i < workerCount; i++) {
+            threads[i] = new Thread(search.workers[i]::run, "hda-worker-" + i);
+            threads[i].setDaemon(true);
+        }
+
+        search.send(space.initialState());
+        for (var thread : threads) thread.start();
+
+        try {
+            for (var thread : threads) thread.join();
+        } catch (InterruptedException e) {
+            search.stopped = true;
+            Thread.currentThread().interrupt();
+            return Result.error(e);
+        }
+
+        if (search.failure.get() != null) return Result.error(search.failure.get());
+
+        var expanded = 0L;
+        for (var worker : search.workers) expanded += worker.expanded;
+        IO.debug("HDA* workers: %d, #Expanded: %,d", workerCount, expanded);
+
+        var goal = search.incumbent.get();
+        if (goal == null) return Result.error(new SolutionNotFound("Empty frontier"));
+        return space.createSolution(goal);
+    }
+
+    private class Search {
+        private final StateSpace space;
+        private final Worker[] workers;
+        // States sent or waiting in an open list. Children are counted before their parent is released,
+        // so it only reaches zero once the search is exhausted.
+        private final AtomicLong work = new AtomicLong();
+        private final AtomicReference<State> incumbent = new AtomicReference<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean stopped = false;
+
+        Search(StateSpace space) {
+            this.space = space;
+            var timeDependent = space.problem().isTimeDependent();
+            var expectedSize = space.problem().expectedStateSize / workerCount;
+            this.workers = new Worker[workerCount];
+            for (var i = 0; i < workerCount; i++) {
+                workers[i] = new Worker(this, new NodeTable(timeDependent, expectedSize), expectedSize);
+            }
+        }
+
+        void send(State state) {
+            work.incrementAndGet();
+            workers[owner(state)].inbox.add(state);
+        }
+
+        int owner(State state) {
+            // equal nodes always share the zobrist key, whether or not the problem depends on time
+            return (int) Long.remainderUnsigned(state.getZobrist(), workerCount);
+        }
+
+        boolean isFinished() {
+            return stopped || work.get() == 0;
+        }
+
+        int incumbentF() {
+            var goal = incumbent.get();
+            return goal == null ? Integer.MAX_VALUE : heuristic.f(goal);
+        }
+
+        void offerGoal(State goal) {
+            while (true) {
+                var current = incumbent.get();
+                if (current != null && heuristic.compare(current, goal) <= 0) return;
+                if (incumbent.compareAndSet(current, goal)) return;
+            }
+        }
+    }
+
+    private class Worker {
+        private final Search search;
+        private final NodeTable nodes;
+        private final PriorityQueue<State> open;
+        private final ConcurrentLinkedQueue<State> inbox = new ConcurrentLinkedQueue<>();
+        private long expanded = 0;
+
+        Worker(Search search, NodeTable nodes, int expectedSize) {
+            this.search = search;
+            this.nodes = nodes;
+            this.open = new PriorityQueue<>(Math.max(16, expectedSize), heuristic);
+        }
+
+        void run() {
+            try {
+                var successors = search.space.successors(true, operatorDecomposition);
+                var idle = 0;
+                while (!search.isFinished()) {
+                    receive();
+
+                    if (open.isEmpty()) {
+                        waitForStates(++idle);
+                        continue;
+                    }
+                    idle = 0;
+
+                    // nothing left here can improve on the goal already found
+                    if (heuristic.f(open.peek()) >= search.incumbentF()) {
+                        var discarded = open.size();
+                        open.clear();
+                        search.work.addAndGet(-discarded);
+                        continue;
+                    }
+
+                    var state = open.poll();
+                    if (!nodes.isStale(state)) expand(state, successors);
+                    search.work.decrementAndGet();
+                }
+            } catch (Throwable e) {
+                search.failure.compareAndSet(null, e);
+                search.stopped = true;
+            }
+        }
+
+        // Spins briefly for states to arrive, then parks for growing periods, leaving the cores to the busy workers
+        // when there are more workers than free cores
+        private void waitForStates(int idle) {
+            if (idle <= IDLE_SPINS) Thread.onSpinWait();
+            else LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1_000L << Math.min(10, idle - IDLE_SPINS)));
+        }
+
+        private void receive() {
+            State state;
+            while ((state = inbox.poll()) != null) {
+                if (nodes.offer(state)) open.add(state);
+                else search.work.decrementAndGet();
+            }
+        }
+
+        private void expand(State state, SuccessorGenerator successors) {
+            if (search.space.isGoalState(state)) {
+                search.offerGoal(state);
+                return;
+            }
+
+            nodes.close(state);
+            expanded++;
+            for (var child : successors.expand(state)) {
+                search.send(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.SolutionNotFound;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.Solution;
+import dtu.aimas.search.solvers.Solver;
+import dtu.aimas.search.solvers.heuristics.AStarHeuristic;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Setter;
+
+// Iterative deepening A*: repeated depth first searches bounded by f = g + h, raising the bound to the smallest
+// f that exceeded it. Only the current path and the children of its states are kept in memory, at the price of
+// re-expanding states in every iteration and whenever they are reached through different paths.
+public class IDAStar implements Solver {
+    private final Heuristic heuristic;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+
+    public IDAStar(Cost cost){
+        this.heuristic = new AStarHeuristic(cost);
+    }
+
+    public Result<Solution> solve(Problem problem) {
+        return ProblemParser.parse(problem).flatMap(this::solve);
+    }
+
+    private Result<Solution> solve(StateSpace space) {
+        var successors = space.successors(true, operatorDecomposition);
+        // revisiting a position at a later step is a different node when the problem depends on time
+        var checkCycles = !space.problem().isTimeDependent();
+        var root = space.initialState();
+        if (space.isGoalState(root)) return space.createSolution(root);
+
+        var threshold = heuristic.f(root, space);
+        var iterations = 0;
+        long expanded = 0;
+        var path = new ArrayList<Children>();
+        while (threshold != Integer.MAX_VALUE) {
+            IO.debug("IDA* iteration %d, bound: %d, #Expanded: %,d", ++iterations, threshold, expanded);
+            var nextThreshold = Integer.MAX_VALUE;
+            path.clear();
+            path.add(new Children(root, successors, space, checkCycles));
+            expanded++;
+
+            while (!path.isEmpty()) {
+                var children = path.get(path.size() - 1);
+                if (!children.hasNext()) {
+                    path.remove(path.size() - 1);
+                    continue;
+                }
+
+                // children are sorted by f, so the remaining ones are all out of bounds
+                if (children.peekF() > threshold) {
+                    nextThreshold = Math.min(nextThreshold, children.peekF());
+                    path.remove(path.size() - 1);
+                    continue;
+                }
+
+                var child = children.next();
+                if (space.isGoalState(child)) return space.createSolution(child);
+
+                path.add(new Children(child, successors, space, checkCycles));
+                expanded++;
+            }
+
+            threshold = nextThreshold;
+        }
+
+        return Result.error(new SolutionNotFound("No state within any bound"));
+    }
+
+    // True if the state repeats one of its ancestors
+    static boolean isOnPath(State state) {
+        // intermediate states depend on the step they decompose, so only complete states are compared
+        if (state.isIntermediate()) return false;
+        for (var ancestor = state.parent; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor.getZobrist() == state.getZobrist()
+                    && !ancestor.isIntermediate()
+                    && Arrays.equals(ancestor.agentCells, state.agentCells)
+                    && Arrays.equals(ancestor.boxCells, state.boxCells)) return true;
+        }
+        return false;
+    }
+
+    // Children of a state on the current path, ordered by f
+    private class Children {
+        private final State[] states;
+        private final int[] f;
+        private int index;
+
+        Children(State state, SuccessorGenerator successors, StateSpace space, boolean checkCycles) {
+            var expanded = successors.expand(state);
+            var count = 0;
+            var candidates = new State[expanded.size()];
+            for (var child : expanded) {
+                if (checkCycles && isOnPath(child)) continue;
+                candidates[count++] = child;
+            }
+
+            var values = new int[count];
+            var order = new Integer[count];
+            for (var i = 0; i < count; i++) {
+                values[i] = heuristic.f(candidates[i], space);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(values[a], values[b]));
+
+            this.states = new State[count];
+            this.f = new int[count];
+            for (var i = 0; i < count; i++) {
+                states[i] = candidates[order[i]];
+                f[i] = values[order[i]];
+            }
+        }
+
+        boolean hasNext() {
+            return index < states.length;
+        }
+
+        int peekF() {
+            return f[index];
+        }
+
+        State next() {
+            return states[index++];
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.Arrays;
+
+// Single open/closed table for a graph search, replacing separate frontier and expanded sets.
+// Open-addressing on the packed state contents, storing per node the best state found so far, its g and whether
+// it has been expanded. When the problem does not depend on time, states at different steps map to the same node
+// and a node is reopened when it is reached with a smaller g.
+// States left in a frontier after a cheaper path replaced them are stale and should be skipped when polled, frontiers
+// supporting decreaseKey can instead swap the cheaper state in for the recorded one, see get.
+public class NodeTable {
+    private final boolean timeDependent;
+    private State[] states;
+    private int[] gValues;
+    private boolean[] closed;
+    private int mask;
+    private int size;
+    private int closedCount;
+
+    public NodeTable(boolean timeDependent, int expectedSize) {
+        this.timeDependent = timeDependent;
+        var capacity = Integer.highestOneBit(Math.max(16, expectedSize) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    // Records the state if its node is new or reached with a smaller g, reopening a closed node.
+    // Returns true if the state should be added to the frontier.
+    public boolean offer(State state) {
+        var index = indexOf(state);
+        var existing = states[index];
+        if (existing == null) {
+            states[index] = state;
+            gValues[index] = state.g();
+            size++;
+            if (size * 2 > states.length) grow();
+            return true;
+        }
+
+        if (state.g() >= gValues[index]) return false;
+
+        states[index] = state;
+        gValues[index] = state.g();
+        if (closed[index]) {
+            closed[index] = false;
+            closedCount--;
+        }
+        return true;
+    }
+
+    // True if the state was replaced by a cheaper one or its node is already expanded
+    public boolean isStale(State state) {
+        var index = indexOf(state);
+        return states[index] != state || closed[index];
+    }
+
+    public void close(State state) {
+        var index = indexOf(state);
+        if (states[index] != state || closed[index]) return;
+        closed[index] = true;
+        closedCount++;
+    }
+
+    public boolean contains(State state) {
+        return states[indexOf(state)] != null;
+    }
+
+    // The state recorded for the node of the state, null if the node is new
+    public State get(State state) {
+        return states[indexOf(state)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int closedCount() {
+        return closedCount;
+    }
+
+    public int openCount() {
+        return size - closedCount;
+    }
+
+    private void allocate(int capacity) {
+        states = new State[capacity];
+        gValues = new int[capacity];
+        closed = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        var oldStates = states;
+        var oldG = gValues;
+        var oldClosed = closed;
+        allocate(oldStates.length * 2);
+        for (var i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] == null) continue;
+            var index = indexOf(oldStates[i]);
+            states[index] = oldStates[i];
+            gValues[index] = oldG[i];
+            closed[index] = oldClosed[i];
+        }
+    }
+
+    // Slot holding the node of the state, or the empty slot where it belongs
+    private int indexOf(State state) {
+        var index = (int) (mix(key(state)) & mask);
+        while (states[index] != null && !sameNode(states[index], state)) {
+            index = index + 1 & mask;
+        }
+        return index;
+    }
+
+    private long key(State state) {
+        var key = state.getZobrist();
+        if (timeDependent) key ^= Zobrist.step(state.g());
+        if (state.isIntermediate()) key ^= Zobrist.decomposition(state.getDecomposedAgents(), key(state.parent));
+        return key;
+    }
+
+    private boolean sameNode(State a, State b) {
+        if (a == b) return true;
+        if (a.getZobrist() != b.getZobrist()) return false;
+        if (timeDependent && a.g() != b.g()) return false;
+        if (a.getDecomposedAgents() != b.getDecomposedAgents()) return false;
+        if (!Arrays.equals(a.agentCells, b.agentCells) || !Arrays.equals(a.boxCells, b.boxCells)) return false;
+        if (!a.getLayout().equals(b.getLayout())) return false;
+        return !a.isIntermediate() || sameNode(a.parent, b.parent);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ z >>> 33) * 0xFF51AFD7ED558CCDL;
+        return z ^ z >>> 33;
+    }
+}
@@ -0,0 +1,83 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.Arrays;
+
+// Cell -> slot lookup for the agents and boxes of a single state.
+// Two small open-addressing tables keyed by packed cell, so lookups are constant time
+// regardless of the number of agents and boxes, and building is linear in their count.
+class OccupancyIndex {
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int[] agentKeys;
+    private final int[] agentSlots;
+    private final int[] boxKeys;
+    private final int[] boxSlots;
+    private final int mask;
+    private boolean overlapping;
+
+    OccupancyIndex(int[] agentCells, int[] boxCells) {
+        var capacity = Integer.highestOneBit(Math.max(2, agentCells.length + boxCells.length) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.agentKeys = emptyTable(capacity);
+        this.agentSlots = new int[capacity];
+        this.boxKeys = emptyTable(capacity);
+        this.boxSlots = new int[capacity];
+
+        for (var slot = 0; slot < agentCells.length; slot++) {
+            if (!insert(agentKeys, agentSlots, agentCells[slot], slot)) overlapping = true;
+        }
+        for (var slot = 0; slot < boxCells.length; slot++) {
+            if (find(agentKeys, agentSlots, boxCells[slot]) >= 0) overlapping = true;
+            if (!insert(boxKeys, boxSlots, boxCells[slot], slot)) overlapping = true;
+        }
+    }
+
+    int agentAt(int cell) {
+        return find(agentKeys, agentSlots, cell);
+    }
+
+    int boxAt(int cell) {
+        return find(boxKeys, boxSlots, cell);
+    }
+
+    boolean isOccupied(int cell) {
+        return agentAt(cell) >= 0 || boxAt(cell) >= 0;
+    }
+
+    // True if any two agents or boxes share a cell
+    boolean isOverlapping() {
+        return overlapping;
+    }
+
+    private static int[] emptyTable(int capacity) {
+        var table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private int indexOf(int cell) {
+        return (cell * 0x9E3779B9) >>> 16 & mask;
+    }
+
+    // Keeps the first slot for a cell, so lookups return the lowest slot like a linear scan would.
+    // Returns false if the cell was already taken.
+    private boolean insert(int[] keys, int[] slots, int cell, int slot) {
+        var i = indexOf(cell);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == cell) return false;
+            i = i + 1 & mask;
+        }
+        keys[i] = cell;
+        slots[i] = slot;
+        return true;
+    }
+
+    private int find(int[] keys, int[] slots, int cell) {
+        var i = indexOf(cell);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == cell) return slots[i];
+            i = i + 1 & mask;
+        }
+        return -1;
+    }
+}
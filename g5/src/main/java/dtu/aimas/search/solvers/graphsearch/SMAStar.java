@@ -0,0 +1,201 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+import dtu.aimas.common.Result;
+import dtu.aimas.communication.IO;
+import dtu.aimas.errors.SolutionNotFound;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.Solution;
+import dtu.aimas.search.solvers.Solver;
+import dtu.aimas.search.solvers.heuristics.AStarHeuristic;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.Heuristic;
+import lombok.Getter;
+import lombok.Setter;
+
+// Simplified memory-bounded A*: a best first search over a tree of at most maxNodes nodes.
+// When the budget is exceeded the leaf with the highest f (shallowest first) is forgotten, and its parent keeps the
+// smallest forgotten f so it is expanded again once the forgotten children become the most promising ones.
+// f values are backed up from the children, so a node's f is the best known lower bound of its subtree.
+// A whole expansion is generated at once, so the budget may be exceeded by the children of a single state.
+public class SMAStar implements Solver {
+    public static final int DEFAULT_MAX_NODES = 1_000_000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final Heuristic heuristic;
+    @Getter
+    private final int maxNodes;
+    // Let agents commit their actions one at a time through intermediate nodes instead of expanding all joint actions
+    @Setter
+    private boolean operatorDecomposition = false;
+
+    public SMAStar(Cost cost, int maxNodes){
+        if (maxNodes < 2) throw new IllegalArgumentException("Node budget must hold at least two nodes");
+        this.heuristic = new AStarHeuristic(cost);
+        this.maxNodes = maxNodes;
+    }
+
+    public SMAStar(Cost cost){
+        this(cost, DEFAULT_MAX_NODES);
+    }
+
+    private static class Node {
+        final State state;
+        final Node parent;
+        final int depth;
+        final long id;
+        final ArrayList<Node> children = new ArrayList<>(0);
+        int f;
+        // smallest f of the children forgotten since the node was last expanded
+        int forgottenF = INFINITY;
+        // f of a leaf or forgottenF of an internal node, fixed while the node is in the open set
+        int priority;
+        boolean open;
+
+        Node(State state, Node parent, int f, long id) {
+            this.state = state;
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.f = f;
+            this.id = id;
+        }
+
+        boolean isLeaf() {
+            return children.isEmpty();
+        }
+    }
+
+    // Deeper nodes first on ties, so the last node is the shallowest of the worst ones
+    private static Comparator<Node> order(ToIntFunction<Node> key) {
+        return Comparator.<Node>comparingInt(key)
+                .thenComparing(Comparator.<Node>comparingInt(n -> n.depth).reversed())
+                .thenComparingLong(n -> n.id);
+    }
+
+    // Nodes that can be expanded: leaves, and internal nodes with forgotten children to regenerate
+    private final TreeSet<Node> open = new TreeSet<>(order(n -> n.priority));
+    // Leaves, the only nodes that can be forgotten
+    private final TreeSet<Node> leaves = new TreeSet<>(order(n -> n.f));
+
+    public Result<Solution> solve(Problem problem) {
+        return ProblemParser.parse(problem).flatMap(this::solve);
+    }
+
+    private Result<Solution> solve(StateSpace space) {
+        open.clear();
+        leaves.clear();
+        var successors = space.successors(true, operatorDecomposition);
+        var checkCycles = !space.problem().isTimeDependent();
+        var root = new Node(space.initialState(), null, heuristic.f(space.initialState(), space), 0);
+        addLeaf(root);
+        var nodeCount = 1;
+        long nodeIds = 1;
+        long expanded = 0;
+
+        while (true) {
+            if (++expanded % 10000 == 0) {
+                IO.debug("#Expanded: %,8d, #Leaves: %,8d, #Nodes: %,8d", expanded, leaves.size(), nodeCount);
+            }
+
+            var best = open.first();
+            if (best.priority == INFINITY)
+                return Result.error(new SolutionNotFound("No solution within a budget of " + maxNodes + " nodes"));
+
+            if (best.isLeaf() && space.isGoalState(best.state))
+                return space.createSolution(best.state);
+
+            removeOpen(best);
+            if (best.isLeaf()) leaves.remove(best);
+            // an internal node only regenerates the children it forgot
+            var regenerating = !best.isLeaf();
+            best.forgottenF = INFINITY;
+            for (var child : successors.expand(best.state)) {
+                if (checkCycles && IDAStar.isOnPath(child)) continue;
+                if (regenerating && hasChild(best, child)) continue;
+
+                int f;
+                // a path longer than the budget can never be completed
+                if (best.depth + 2 >= maxNodes && !space.isGoalState(child)) f = INFINITY;
+                else f = Math.max(best.f, heuristic.f(child, space));
+
+                var node = new Node(child, best, f, nodeIds++);
+                best.children.add(node);
+                addLeaf(node);
+                nodeCount++;
+            }
+
+            if (best.isLeaf()) {
+                best.f = INFINITY;
+                if (best.parent == null) addLeaf(best);
+                else {
+                    forget(best);
+                    nodeCount--;
+                }
+            } else {
+                backup(best);
+            }
+
+            while (nodeCount > maxNodes && leaves.size() > 1) {
+                var worst = leaves.pollLast();
+                removeOpen(worst);
+                forget(worst);
+                nodeCount--;
+            }
+        }
+    }
+
+    private void addLeaf(Node node) {
+        addOpen(node, node.f);
+        leaves.add(node);
+    }
+
+    private void addOpen(Node node, int priority) {
+        node.priority = priority;
+        node.open = true;
+        open.add(node);
+    }
+
+    private void removeOpen(Node node) {
+        if (!node.open) return;
+        open.remove(node);
+        node.open = false;
+    }
+
+    private static boolean hasChild(Node node, State state) {
+        for (var child : node.children) {
+            if (child.state.equals(state)) return true;
+        }
+        return false;
+    }
+
+    // Removes a leaf no longer in the open set or leaves, and records its f in the parent
+    private void forget(Node leaf) {
+        var parent = leaf.parent;
+        parent.children.remove(leaf);
+        removeOpen(parent);
+        parent.forgottenF = Math.min(parent.forgottenF, leaf.f);
+        if (parent.isLeaf()) {
+            parent.f = parent.forgottenF;
+            addLeaf(parent);
+            backup(parent.parent);
+        } else {
+            if (parent.forgottenF != INFINITY) addOpen(parent, parent.forgottenF);
+            backup(parent);
+        }
+    }
+
+    // Updates the f of the ancestors from their children until a value no longer changes
+    private static void backup(Node node) {
+        for (var n = node; n != null && !n.isLeaf(); n = n.parent) {
+            var f = n.forgottenF;
+            for (var child : n.children) f = Math.min(f, child.f);
+            if (f == n.f) return;
+            n.f = f;
+        }
+    }
+}
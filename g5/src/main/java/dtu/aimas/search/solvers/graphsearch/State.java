@@ -2,6 +2,7 @@ package dtu.aimas.search.solvers.graphsearch;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import dtu.aimas.common.*;
@@ -11,20 +12,70 @@ import lombok.NonNull;
 
 public class State {
     public final State parent;
-    public final ArrayList<Agent> agents;
-    public final ArrayList<Box> boxes;
     public final Action[] jointAction;
+    @Getter
+    private final StateLayout layout;
+    // Packed cells of each agent and box slot, see Position.cell. Never mutated, so children share them when unchanged.
+    final int[] agentCells;
+    final int[] boxCells;
     private final StateConfig stateConfig;
+    // Zobrist key of the agent and box cells, updated incrementally by the state space when moving entities
+    @Getter
+    private final long zobrist;
     private final int hash;
-    
+
+    // Object views of the packed cells, only created when requested
+    private ArrayList<Agent> agents;
+    private ArrayList<Box> boxes;
+    // Cell lookup, only built once the state is queried by position
+    private OccupancyIndex occupancy;
+
     @Getter
     private final int g;
 
+    // h and f of the last heuristic that evaluated the state, identified by its evaluation epoch (0 = none)
+    private int evaluation;
+    private int h;
+    private int f;
+
+    // Frontier currently holding the state and its slot there, kept up to date by the frontier itself so it can
+    // answer contains and find the state again without a set of its own
+    Frontier frontier;
+    int frontierIndex;
+
+    // Operator decomposition: number of agents whose action is already applied in this intermediate node.
+    // Zero for complete states. Intermediate nodes stay at the step of their parent and keep null for the
+    // actions of the remaining agents.
+    @Getter
+    private final int decomposedAgents;
+
+    State(@NonNull State parent, int[] agentCells, int[] boxCells, long zobrist, @NonNull Action[] jointActions){
+        this(parent, agentCells, boxCells, zobrist, jointActions, 0);
+    }
+
+    State(@NonNull State parent, int[] agentCells, int[] boxCells, long zobrist, @NonNull Action[] jointActions, int decomposedAgents){
+        this.parent = parent;
+        this.layout = parent.layout;
+        this.agentCells = agentCells;
+        this.boxCells = boxCells;
+        this.zobrist = zobrist;
+        this.jointAction = jointActions;
+        this.decomposedAgents = decomposedAgents;
+        this.g = decomposedAgents == 0 ? parent.g + 1 : parent.g;
+        this.stateConfig = parent.stateConfig;
+        this.hash = stateConfig.getHash().apply(this);
+    }
+
     public State(@NonNull State parent, ArrayList<Agent> agents, ArrayList<Box> boxes, @NonNull Action[] jointActions){
         this.parent = parent;
+        this.layout = parent.layout.matches(agents, boxes) ? parent.layout : StateLayout.of(agents, boxes);
+        this.agentCells = packAgents(agents);
+        this.boxCells = packBoxes(boxes);
+        this.zobrist = Zobrist.of(agentCells, boxCells);
         this.agents = agents;
         this.boxes = boxes;
         this.jointAction = jointActions;
+        this.decomposedAgents = 0;
         this.g = parent.g + 1;
         this.stateConfig = parent.stateConfig;
         this.hash = stateConfig.getHash().apply(this);
@@ -32,9 +83,14 @@ public class State {
 
     public State(ArrayList<Agent> agents, ArrayList<Box> boxes, @NonNull StateConfig stateConfig){
         this.parent = null;
+        this.layout = StateLayout.of(agents, boxes);
+        this.agentCells = packAgents(agents);
+        this.boxCells = packBoxes(boxes);
+        this.zobrist = Zobrist.of(agentCells, boxCells);
         this.agents = agents;
         this.boxes = boxes;
         this.jointAction = null;
+        this.decomposedAgents = 0;
         this.g = 0;
         this.stateConfig = stateConfig;
         this.hash = stateConfig.getHash().apply(this);
@@ -44,11 +100,137 @@ public class State {
         this(agents, boxes, new StateConfig());
     }
 
+    private static int[] packAgents(List<Agent> agents){
+        var cells = new int[agents.size()];
+        for(var i = 0; i < cells.length; i++) cells[i] = agents.get(i).pos.cell();
+        return cells;
+    }
+
+    private static int[] packBoxes(List<Box> boxes){
+        var cells = new int[boxes.size()];
+        for(var i = 0; i < cells.length; i++) cells[i] = boxes.get(i).pos.cell();
+        return cells;
+    }
+
     public int g()
     {
         return this.g;
     }
 
+    public int h(){
+        return h;
+    }
+
+    public int f(){
+        return f;
+    }
+
+    public boolean isEvaluatedIn(int epoch){
+        return evaluation == epoch;
+    }
+
+    public void setEvaluation(int epoch, int h, int f){
+        this.evaluation = epoch;
+        this.h = h;
+        this.f = f;
+    }
+
+    public boolean isIntermediate(){
+        return decomposedAgents > 0;
+    }
+
+    public ArrayList<Agent> agents(){
+        if(agents == null){
+            var result = new ArrayList<Agent>(agentCells.length);
+            for(var i = 0; i < agentCells.length; i++){
+                result.add(new Agent(Position.fromCell(agentCells[i]), layout.agentColor(i), layout.agentLabel(i)));
+            }
+            agents = result;
+        }
+        return agents;
+    }
+
+    public ArrayList<Box> boxes(){
+        if(boxes == null){
+            var result = new ArrayList<Box>(boxCells.length);
+            for(var i = 0; i < boxCells.length; i++){
+                result.add(new Box(Position.fromCell(boxCells[i]), layout.boxColor(i), layout.boxLabel(i)));
+            }
+            boxes = result;
+        }
+        return boxes;
+    }
+
+    public int agentCount(){
+        return agentCells.length;
+    }
+
+    public int boxCount(){
+        return boxCells.length;
+    }
+
+    public int agentCell(int slot){
+        return agentCells[slot];
+    }
+
+    public int boxCell(int slot){
+        return boxCells[slot];
+    }
+
+    // True if no box moved between the states, without comparing the cells
+    public boolean sharesBoxCells(State other){
+        return boxCells == other.boxCells;
+    }
+
+    public char agentLabel(int slot){
+        return layout.agentLabel(slot);
+    }
+
+    public Color agentColor(int slot){
+        return layout.agentColor(slot);
+    }
+
+    public char boxLabel(int slot){
+        return layout.boxLabel(slot);
+    }
+
+    public Color boxColor(int slot){
+        return layout.boxColor(slot);
+    }
+
+    public int agentSlot(char label){
+        return layout.agentSlot(label);
+    }
+
+    public int agentSlotAt(int cell){
+        return occupancy().agentAt(cell);
+    }
+
+    public int boxSlotAt(int cell){
+        return occupancy().boxAt(cell);
+    }
+
+    public boolean isOccupied(int cell){
+        return occupancy().isOccupied(cell);
+    }
+
+    // True if two agents or boxes are placed on the same cell
+    public boolean hasOverlappingCells(){
+        return occupancy().isOverlapping();
+    }
+
+    private OccupancyIndex occupancy(){
+        if(occupancy == null) occupancy = new OccupancyIndex(agentCells, boxCells);
+        return occupancy;
+    }
+
+    int zobristHash(){
+        var key = zobrist ^ Zobrist.step(g);
+        // intermediate nodes only match when they decompose the same step from the same parent
+        if(isIntermediate()) key ^= Zobrist.decomposition(decomposedAgents, parent.zobrist);
+        return Long.hashCode(key);
+    }
+
     @Override
     public String toString() {
         var sb = new StringBuilder();
@@ -56,11 +238,11 @@ public class State {
         var newline = System.lineSeparator();
 
         sb.append("Agents: ");
-        sb.append(agents.stream().map(Agent::toString).collect(commaSeparate));
+        sb.append(agents().stream().map(Agent::toString).collect(commaSeparate));
         sb.append(newline);
 
         sb.append("Boxes: ");
-        sb.append(boxes.stream().map(Box::toString).collect(commaSeparate));
+        sb.append(boxes().stream().map(Box::toString).collect(commaSeparate));
         sb.append(newline);
 
         return sb.toString();
@@ -71,13 +253,13 @@ public class State {
         if(this.g != other.g) return false;
 
         // All agents must be equal and in the same order, due to joint action order
-        if(!other.agents.equals(this.agents)) return false;
+        if(!other.agents().equals(this.agents())) return false;
 
         // Joint actions must be identical
         if(!Arrays.equals(other.jointAction, this.jointAction)) return false;
 
         // All boxes must be there, but order may vary
-        for(var box: other.boxes) if(!this.boxes.contains(box)) return false;
+        for(var box: other.boxes()) if(!this.boxes().contains(box)) return false;
 
         return true;
     }
@@ -85,8 +267,15 @@ public class State {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (!(o instanceof State)) return false;
-        return hashCode() == o.hashCode();
+        if (!(o instanceof State other)) return false;
+        return hash == other.hash
+                && g == other.g
+                && zobrist == other.zobrist
+                && decomposedAgents == other.decomposedAgents
+                && Arrays.equals(agentCells, other.agentCells)
+                && Arrays.equals(boxCells, other.boxCells)
+                && layout.equals(other.layout)
+                && (!isIntermediate() || parent.equals(other.parent));
     }
 
     @Override
@@ -2,7 +2,6 @@ package dtu.aimas.search.solvers.graphsearch;
 
 import lombok.Getter;
 
-import java.util.Objects;
 import java.util.function.Function;
 
 @Getter
@@ -13,6 +12,6 @@ public class StateConfig {
     }
 
     public StateConfig() {
-        this.hash = s -> Objects.hash(s.agents, s.boxes, s.g());
+        this.hash = State::zobristHash;
     }
 }
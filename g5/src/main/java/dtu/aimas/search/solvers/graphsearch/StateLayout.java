@@ -0,0 +1,107 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Box;
+import dtu.aimas.common.Color;
+
+// Labels and colors of the agent and box slots of a packed state.
+// These never change during a search, so a single layout is shared by every state of a state space.
+public class StateLayout {
+    private final char[] agentLabels;
+    private final Color[] agentColors;
+    private final char[] boxLabels;
+    private final Color[] boxColors;
+    private final int hash;
+
+    private StateLayout(char[] agentLabels, Color[] agentColors, char[] boxLabels, Color[] boxColors) {
+        this.agentLabels = agentLabels;
+        this.agentColors = agentColors;
+        this.boxLabels = boxLabels;
+        this.boxColors = boxColors;
+        this.hash = Objects.hash(
+                Arrays.hashCode(agentLabels), Arrays.hashCode(agentColors),
+                Arrays.hashCode(boxLabels), Arrays.hashCode(boxColors));
+    }
+
+    public static StateLayout of(List<Agent> agents, List<Box> boxes) {
+        var agentLabels = new char[agents.size()];
+        var agentColors = new Color[agents.size()];
+        for (var i = 0; i < agentLabels.length; i++) {
+            agentLabels[i] = agents.get(i).label;
+            agentColors[i] = agents.get(i).color;
+        }
+
+        var boxLabels = new char[boxes.size()];
+        var boxColors = new Color[boxes.size()];
+        for (var i = 0; i < boxLabels.length; i++) {
+            boxLabels[i] = boxes.get(i).label;
+            boxColors[i] = boxes.get(i).color;
+        }
+
+        return new StateLayout(agentLabels, agentColors, boxLabels, boxColors);
+    }
+
+    public boolean matches(List<Agent> agents, List<Box> boxes) {
+        if (agents.size() != agentLabels.length || boxes.size() != boxLabels.length) return false;
+        for (var i = 0; i < agentLabels.length; i++) {
+            var agent = agents.get(i);
+            if (agent.label != agentLabels[i] || agent.color != agentColors[i]) return false;
+        }
+        for (var i = 0; i < boxLabels.length; i++) {
+            var box = boxes.get(i);
+            if (box.label != boxLabels[i] || box.color != boxColors[i]) return false;
+        }
+        return true;
+    }
+
+    public int agentCount() {
+        return agentLabels.length;
+    }
+
+    public int boxCount() {
+        return boxLabels.length;
+    }
+
+    public char agentLabel(int slot) {
+        return agentLabels[slot];
+    }
+
+    public Color agentColor(int slot) {
+        return agentColors[slot];
+    }
+
+    public char boxLabel(int slot) {
+        return boxLabels[slot];
+    }
+
+    public Color boxColor(int slot) {
+        return boxColors[slot];
+    }
+
+    public int agentSlot(char label) {
+        for (var i = 0; i < agentLabels.length; i++) {
+            if (agentLabels[i] == label) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StateLayout other)) return false;
+        return hash == other.hash
+                && Arrays.equals(agentLabels, other.agentLabels)
+                && Arrays.equals(agentColors, other.agentColors)
+                && Arrays.equals(boxLabels, other.boxLabels)
+                && Arrays.equals(boxColors, other.boxColors);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
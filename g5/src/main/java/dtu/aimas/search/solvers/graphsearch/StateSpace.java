@@ -21,6 +21,7 @@ import dtu.aimas.errors.InvalidOperation;
 import dtu.aimas.errors.UnreachableState;
 import dtu.aimas.search.Action;
 import dtu.aimas.search.ActionType;
+import dtu.aimas.search.GridTopology;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solutions.Solution;
 import dtu.aimas.search.solvers.SolutionMerger;
@@ -47,22 +48,14 @@ public record StateSpace(
     }
 
     public boolean isGoalState(State state) {
+        if (state.isIntermediate()) return false;
         for (Goal goal : this.problem.agentGoals) {
-            // var agent = getAgentByNumber(state, goal.label - '0');
-            var agent = getAgentByLabel(state, goal.label);
-            if (!satisfies(goal, agent)) {
+            if (!satisfiesAgentGoal(state, goal)) {
                 return false;
             }
         }
         for (Goal goal : this.problem.boxGoals) {
-            boolean goalSatisfied = false;
-            for (Box box : state.boxes) {
-                if (satisfies(goal, box)) {
-                    goalSatisfied = true;
-                    break;
-                }
-            }
-            if (!goalSatisfied) {
+            if (!satisfiesBoxGoal(state, goal)) {
                 return false;
             }
         }
@@ -140,64 +133,50 @@ public record StateSpace(
     }
 
     public Agent getAgentByNumber(State state, int i) {
-        return state.agents.get(i);
+        return state.agents().get(i);
     }
 
     public Agent getAgentByLabel(State state, char label) {
-        for (var agent : state.agents) {
-            if (agent.label == label) return agent;
-        }
-        throw new UnreachableState();
+        var slot = state.agentSlot(label);
+        if (slot < 0) throw new UnreachableState();
+        return state.agents().get(slot);
     }
 
     public Optional<Box> getBoxAt(State state, Position position) {
-        for (Box box : state.boxes) {
-            if (position.equals(box.pos)) {
-                return Optional.of(box);
-            }
-        }
-        return Optional.empty();
+        var slot = state.boxSlotAt(position.cell());
+        return slot < 0 ? Optional.empty() : Optional.of(state.boxes().get(slot));
     }
 
     public Optional<Agent> getAgentAt(State state, Position position) {
-        for (Agent agent : state.agents) {
-            if (position.equals(agent.pos))
-                return Optional.of(agent);
-        }
-        return Optional.empty();
+        var slot = state.agentSlotAt(position.cell());
+        return slot < 0 ? Optional.empty() : Optional.of(state.agents().get(slot));
     }
 
-    private boolean satisfies(Goal goal, Agent agent) {
-        return agent.pos.equals(goal.destination);
+    private boolean satisfiesAgentGoal(State state, Goal goal) {
+        var slot = state.agentSlot(goal.label);
+        if (slot < 0) throw new UnreachableState();
+        return state.agentCell(slot) == goal.destination.cell();
     }
 
-    private boolean isCellFree(Position position, State state, Agent agent, int timeStep){
-        return !getAgentAt(state, position).isPresent() && 
-        !getBoxAt(state, position).isPresent() && this.problem.isFree(position, agent, timeStep);
-    }
-
-    private boolean canStayAtCell(Position position, Agent agent, int timeStep){
-        return this.problem.isFree(position, agent, timeStep);
-    }
-
-    private boolean notOwner(Agent agent, Box box) {
-        return agent.color != box.color;
-    }
-
-    private boolean satisfies(Goal goal, Box box) {
-        return box.label == goal.label && box.pos.equals(goal.destination);
+    private boolean satisfiesBoxGoal(State state, Goal goal) {
+        var destination = goal.destination.cell();
+        for (var slot = 0; slot < state.boxCount(); slot++) {
+            if (state.boxLabel(slot) == goal.label && state.boxCell(slot) == destination) return true;
+        }
+        return false;
     }
 
-    private Position moveAgent(Agent agent, Action action) {
-        return new Position(agent.pos.row + action.agentRowDelta, agent.pos.col + action.agentColDelta);
+    boolean isCellFree(int cell, State state, char agentLabel, int timeStep){
+        return !state.isOccupied(cell) && this.problem.isFree(cell, agentLabel, timeStep);
     }
 
-    private Position moveBox(Box box, Action action) {
-        return new Position(box.pos.row + action.boxRowDelta, box.pos.col + action.boxColDelta);
+    // Applying actions only needs the arithmetic, the tables of the topology are for checking them first
+    static int moveCell(int cell, int rowDelta, int colDelta) {
+        return Position.cell(Position.rowOf(cell) + rowDelta, Position.colOf(cell) + colDelta);
     }
 
-    private Position getPullSource(Agent agent, Action action) {
-        return new Position(agent.pos.row - action.boxRowDelta, agent.pos.col - action.boxColDelta);
+    private boolean notOwner(Agent agent, Box box) {
+        return agent.color != box.color;
     }
 
     public boolean isApplicable(State state, Agent agent, Action action) {
@@ -208,42 +187,30 @@ public record StateSpace(
     }
 
     public Optional<Position> findConflictingPosition(State state, Agent agent, Action action, int timeStep){
-        Position agentDestination;
-        Optional<Box> boxResult;
-        Box box;
+        var conflict = findConflictingCell(state, agent.pos.cell(), agent.label, agent.color, action, timeStep);
+        return conflict == GridTopology.NO_CELL ? Optional.empty() : Optional.of(Position.fromCell(conflict));
+    }
+
+    // Cell that keeps the action from being applied, NO_CELL if it can be
+    private int findConflictingCell(State state, int agentCell, char label, Color color, Action action, int timeStep){
+        var topology = problem.getTopology();
         switch (action.type) {
             case NoOp -> {
-                return canStayAtCell(agent.pos, agent, timeStep)
-                        ? Optional.empty()
-                        : Optional.of(agent.pos);
+                return problem.isFree(agentCell, label, timeStep) ? GridTopology.NO_CELL : agentCell;
             }
             case Move -> {
-                agentDestination = moveAgent(agent, action);
-                return isCellFree(agentDestination, state, agent, timeStep)
-                        ? Optional.empty()
-                        : Optional.of(agentDestination);
-            }
-            case Push -> {
-                agentDestination = moveAgent(agent, action);
-                boxResult = getBoxAt(state, agentDestination);
-                if (boxResult.isEmpty()) return Optional.of(agentDestination);
-                box = boxResult.get();
-                if (notOwner(agent, box)) return Optional.of(agentDestination);
-                Position boxDestination = moveBox(box, action);
-                return isCellFree(boxDestination, state, agent, timeStep)
-                        ? Optional.empty()
-                        : Optional.of(boxDestination);
+                var agentDestination = topology.agentTarget(agentCell, action);
+                return isCellFree(agentDestination, state, label, timeStep) ? GridTopology.NO_CELL : agentDestination;
             }
-            case Pull -> {
-                Position boxSource = getPullSource(agent, action);
-                boxResult = getBoxAt(state, boxSource);
-                if (boxResult.isEmpty()) return Optional.of(boxSource);
-                box = boxResult.get();
-                if (notOwner(agent, box)) return Optional.of(boxSource);
-                agentDestination = moveAgent(agent, action);
-                return isCellFree(agentDestination, state, agent, timeStep)
-                        ? Optional.empty()
-                        : Optional.of(agentDestination);
+            case Push, Pull -> {
+                var boxSource = topology.boxSource(agentCell, action);
+                var box = state.boxSlotAt(boxSource);
+                if (box < 0 || state.boxColor(box) != color) return boxSource;
+                // a push moves the box into a new cell, a pull moves the agent into one
+                var destination = action.type == ActionType.Push
+                        ? topology.boxTarget(agentCell, action)
+                        : topology.agentTarget(agentCell, action);
+                return isCellFree(destination, state, label, timeStep) ? GridTopology.NO_CELL : destination;
             }
         }
 
@@ -287,82 +254,34 @@ public record StateSpace(
     }
 
     public ArrayList<State> expand(State state) {
+        return new SuccessorGenerator(this, StateSpace.RNG).expand(state);
+    }
 
-        int timeStep = 1;
-        State iterator = state;
-        while (iterator.parent != null) {
-            iterator = iterator.parent;
-            timeStep++;
-        }
-
-        int agentsCount = state.agents.size();
-        Action[][] applicableActions = new Action[agentsCount][];
-        for (int agentId = 0; agentId < agentsCount; agentId++) {
-            ArrayList<Action> agentActions = new ArrayList<>(Action.values().length);
-            // var agent = getAgentByNumber(state, agentId);
-            var agent = state.agents.get(agentId);
-            for(Action action : Action.values()){
-                if(isApplicable(state, agent, action, timeStep)){
-                    agentActions.add(action);
-                }
-            }
-            // when no action is applicable due to constraints, return empty list
-            if(agentActions.isEmpty()){
-                return new ArrayList<>();
-            }
-            applicableActions[agentId] = agentActions.toArray(new Action[0]);
-        }
-
-        // permutations generation, literally copied from warmup
-        Action[] jointAction = new Action[agentsCount];
-        int[] actionsPermutation = new int[agentsCount];
-        ArrayList<State> expandedStates = new ArrayList<>(16);
-
-        while (true) {
-            for (int i = 0; i < agentsCount; i++) {
-                jointAction[i] = applicableActions[i][actionsPermutation[i]];
-            }
-
-            var stateResult = tryCreateState(state, jointAction);
-            stateResult.ifPresent(expandedStates::add);
-
-            boolean done = false;
-
-            for (int i = 0; i < agentsCount; i++) {
-                if (actionsPermutation[i] < applicableActions[i].length - 1) {
-                    ++actionsPermutation[i];
-                    break;
-                } else {
-                    actionsPermutation[i] = 0;
-                    if (i == agentsCount - 1) {
-                        done = true;
-                    }
-                }
-            }
-
-            if (done) break;
-        }
+    // Successor generator reusing its scratch buffers across a search, shuffled like expand unless deterministic
+    public SuccessorGenerator successors(boolean deterministic) {
+        return successors(deterministic, false);
+    }
 
-        Collections.shuffle(expandedStates, StateSpace.RNG);
+    public SuccessorGenerator successors(boolean deterministic, boolean operatorDecomposition) {
+        return successors(deterministic, operatorDecomposition, false);
+    }
 
-        return expandedStates;
+    public SuccessorGenerator successors(boolean deterministic, boolean operatorDecomposition, boolean macroMoves) {
+        return new SuccessorGenerator(this, deterministic ? null : StateSpace.RNG, operatorDecomposition, macroMoves);
     }
 
     public boolean isValid(State state) {
-        Set<Position> occupiedPositions = new HashSet<>();
-        for (Agent agent : state.agents) {
-            if (!occupiedPositions.add(agent.pos)) return false;
-        }
-        for (Box box : state.boxes) {
-            if (!occupiedPositions.add(box.pos)) return false;
+        return !state.hasOverlappingCells() && isSafe(state);
+    }
+
+    // Safe interval problems additionally block cells at given time steps for every entity
+    boolean isSafe(State state) {
+        if (!(problem instanceof SafeProblem)) return true;
+        for (var i = 0; i < state.agentCount(); i++) {
+            if(!problem.isFree(state.agentCell(i), (char) 0, state.g())) return false;
         }
-        if (problem instanceof SafeProblem){
-            for(var agent: state.agents){
-                if(!problem.isFree(agent.pos, null, state.g())) return false;
-            }
-            for(var box: state.boxes){
-                if(!problem.isFree(box.pos, null, state.g())) return false;
-            }
+        for (var i = 0; i < state.boxCount(); i++) {
+            if(!problem.isFree(state.boxCell(i), (char) 0, state.g())) return false;
         }
         return true;
     }
@@ -422,7 +341,7 @@ public record StateSpace(
         // take the closest agent of the same color as responsible for the box
         Optional<Agent> responsibleAgent = Optional.empty();
         var closestDistance = Integer.MAX_VALUE;
-        for(Agent agent : state.agents){
+        for(Agent agent : state.agents()){
             if(!notOwner(agent, box)){
                 var distance = Math.abs(agent.pos.row - box.pos.row) + Math.abs(agent.pos.col - box.pos.col);
                 if(closestDistance > distance){
@@ -435,20 +354,20 @@ public record StateSpace(
     }
 
     public Agent getAgentFromInitialState(Agent agentInCurrentState){
-        return initialState.agents.stream().filter(agent -> agent.label == agentInCurrentState.label).findFirst().get();
+        return initialState.agents().stream().filter(agent -> agent.label == agentInCurrentState.label).findFirst().get();
     }
 
     public Optional<Conflict> tryGetVertexConflict(State state, int timeStep){
         Set<Position> occupiedPositions = new HashSet<>();
         Optional<Position> conflictPosition = Optional.empty();
-        for (Agent agent : state.agents) {
+        for (Agent agent : state.agents()) {
             if (!occupiedPositions.add(agent.pos)){
                 conflictPosition = Optional.of(agent.pos);
                 break;
             }
         }
         if(!conflictPosition.isPresent()){
-            for (Box box : state.boxes) {
+            for (Box box : state.boxes()) {
                 if (!occupiedPositions.add(box.pos)) {
                     if (!occupiedPositions.add(box.pos)){
                         conflictPosition = Optional.of(box.pos);
@@ -459,11 +378,11 @@ public record StateSpace(
         }
         if(!conflictPosition.isPresent()) return Optional.empty();
         var pos = conflictPosition.get();
-        HashSet<Agent> involvedAgents = new HashSet<Agent>(state.agents.stream()
+        HashSet<Agent> involvedAgents = new HashSet<Agent>(state.agents().stream()
                                                                         .filter(agent -> agent.pos.equals(pos))
                                                                         .map(agent -> getAgentFromInitialState(agent))
                                                                         .collect(Collectors.toSet()));
-        var involvedBoxesSet = state.boxes.stream().filter(box -> box.pos.equals(pos)).collect(Collectors.toSet());
+        var involvedBoxesSet = state.boxes().stream().filter(box -> box.pos.equals(pos)).collect(Collectors.toSet());
         for(var box : involvedBoxesSet){
             var responsibleAgent = tryGetAgentResponsibleForBox(box, state);
             if(responsibleAgent.isPresent()) involvedAgents.add(getAgentFromInitialState(responsibleAgent.get()));
@@ -473,111 +392,65 @@ public record StateSpace(
     }
 
     public Optional<Position> getPossibleConflictPosition(State state, Agent agent, Action action){
-        switch (action.type) {
-            case NoOp -> {
-                return Optional.empty();
-            }
-            case Move -> {
-                return Optional.of(moveAgent(agent, action));
-            }
-            case Push -> {
-                var agentDestination = moveAgent(agent, action);
-                var agentsBox = getBoxAt(state, agentDestination).get();
-                return Optional.of(moveBox(agentsBox, action));
-            }
-            case Pull -> {
-                return Optional.of(moveAgent(agent, action));
-            }
-            default -> throw new UnreachableState();
-        }
+        var agentDestination = moveCell(agent.pos.cell(), action.agentRowDelta, action.agentColDelta);
+        return switch (action.type) {
+            case NoOp -> Optional.empty();
+            case Move, Pull -> Optional.of(Position.fromCell(agentDestination));
+            case Push -> Optional.of(Position.fromCell(moveCell(agentDestination, action.boxRowDelta, action.boxColDelta)));
+        };
     }
 
     public State applyJointActions(State state, Action[] actionsToApply) {
-        ArrayList<Agent> updatedAgents = new ArrayList<>(state.agents.size());
-        ArrayList<Box> updatedBoxes = new ArrayList<>(state.boxes.size());
+        return applyActions(state, actionsToApply, actionsToApply.length, false);
+    }
 
-        for (Box box : state.boxes) {
-            updatedBoxes.add(copyBox(box));
-        }
+    // Intermediate operator decomposition node where only the first agents have their action applied
+    State applyDecomposedActions(State state, Action[] actionsToApply, int decomposedAgents) {
+        return applyActions(state, actionsToApply, decomposedAgents, decomposedAgents < state.agentCount());
+    }
 
-        for (int action = 0; action < actionsToApply.length; action++) {
-            // Agent agent = getAgentByNumber(state, action);
-            Agent agent = state.agents.get(action);
-            Agent updatedAgent = null;
-            Position agentDestination;
+    private State applyActions(State state, Action[] actionsToApply, int count, boolean intermediate) {
+        var agentCells = intermediate ? state.agentCells.clone() : new int[state.agentCount()];
+        // Boxes are only copied once one of them moves, otherwise the parent cells are shared
+        var boxCells = state.boxCells;
+        var zobrist = state.getZobrist();
 
-            Box box;
-            Optional<Box> boxResult;
-            Box updatedBox;
-            Position boxDestination;
-            Position boxSource;
+        for (int agent = 0; agent < count; agent++) {
+            var action = actionsToApply[agent];
+            var agentCell = state.agentCell(agent);
+            int boxSource;
+            int boxSlot;
 
-            switch (actionsToApply[action].type) {
-                case NoOp -> updatedAgent = copyAgent(agent);
+            switch (action.type) {
+                case NoOp -> agentCells[agent] = agentCell;
                 case Move -> {
-                    agentDestination = moveAgent(agent, actionsToApply[action]);
-                    updatedAgent = copyAgent(agent, agentDestination);
+                    agentCells[agent] = moveCell(agentCell, action.agentRowDelta, action.agentColDelta);
+                    zobrist ^= Zobrist.agent(agent, agentCell) ^ Zobrist.agent(agent, agentCells[agent]);
                 }
-                case Push -> {
-                    agentDestination = moveAgent(agent, actionsToApply[action]);
-                    boxResult = getBoxAt(state, agentDestination);
-                    if(boxResult.isEmpty()) throw new IllegalStateException("Invalid action");
-                    box = boxResult.get();
-                    boxDestination = moveBox(box, actionsToApply[action]);
-                    updatedAgent = copyAgent(agent, agentDestination);
-                    updatedBox = copyBox(box, boxDestination);
-                    for (int i = 0; i < updatedBoxes.size(); i++) {
-                        if (agentDestination.equals(updatedBoxes.get(i).pos)) {
-                            updatedBoxes.remove(i);
-                            updatedBoxes.add(i, updatedBox);
-                            break;
-                        }
-                    }
-                }
-                case Pull -> {
-                    boxSource = getPullSource(agent, actionsToApply[action]);
-                    agentDestination = moveAgent(agent, actionsToApply[action]);
-                    boxResult = getBoxAt(state, boxSource);
-                    if(boxResult.isEmpty()) throw new IllegalStateException("Invalid action");
-                    box = boxResult.get();
-                    boxDestination = moveBox(box, actionsToApply[action]);
-                    updatedAgent = copyAgent(agent, agentDestination);
-                    updatedBox = copyBox(box, boxDestination);
-                    for (int i = 0; i < updatedBoxes.size(); i++) {
-                        if (boxSource.equals(updatedBoxes.get(i).pos)) {
-                            updatedBoxes.remove(i);
-                            updatedBoxes.add(i, updatedBox);
-                            break;
-                        }
-                    }
+                case Push, Pull -> {
+                    var agentDestination = moveCell(agentCell, action.agentRowDelta, action.agentColDelta);
+                    boxSource = action.type == ActionType.Push
+                            ? agentDestination
+                            : moveCell(agentCell, -action.boxRowDelta, -action.boxColDelta);
+                    boxSlot = state.boxSlotAt(boxSource);
+                    if(boxSlot < 0) throw new IllegalStateException("Invalid action");
+                    if(boxCells == state.boxCells) boxCells = boxCells.clone();
+                    boxCells[boxSlot] = moveCell(boxSource, action.boxRowDelta, action.boxColDelta);
+                    agentCells[agent] = agentDestination;
+                    zobrist ^= Zobrist.box(boxSlot, boxSource) ^ Zobrist.box(boxSlot, boxCells[boxSlot]);
+                    zobrist ^= Zobrist.agent(agent, agentCell) ^ Zobrist.agent(agent, agentDestination);
                 }
             }
-            updatedAgents.add(updatedAgent);
         }
-        return new State(state, updatedAgents, updatedBoxes, actionsToApply);
-    }
-
-    private Agent copyAgent(Agent agent) {
-        return new Agent(new Position(agent.pos.row, agent.pos.col), agent.color, agent.label);
-    }
-
-    private Agent copyAgent(Agent agent, Position newPosition) {
-        return new Agent(newPosition, agent.color, agent.label);
-    }
-
-    private Box copyBox(Box box) {
-        return new Box(new Position(box.pos.row, box.pos.col), box.color, box.label);
-    }
-
-    private Box copyBox(Box box, Position newPosition) {
-        return new Box(newPosition, box.color, box.label);
+        return intermediate
+                ? new State(state, agentCells, boxCells, zobrist, actionsToApply, count)
+                : new State(state, agentCells, boxCells, zobrist, actionsToApply);
     }
 
     public int getSatisfiedAgentGoalsCount(State state) {
         var result = 0;
         for (Goal goal : this.problem.agentGoals) {
-            var agent = getAgentByLabel(state, goal.label);
-            if (satisfies(goal, agent)) {
+            if (satisfiesAgentGoal(state, goal)) {
                 result++;
             }
         }
@@ -587,22 +460,19 @@ public record StateSpace(
     public int getSatisfiedBoxGoalsCount(State state) {
         var result = 0;
         for (Goal goal : this.problem.boxGoals) {
-            for (Box box : state.boxes) {
-                if (satisfies(goal, box)) {
-                    result++;
-                    break;
-                }
+            if (satisfiesBoxGoal(state, goal)) {
+                result++;
             }
         }
         return result;
     }
 
     public State shallowMerge(State mainState, State otherState){
-        var agents = new ArrayList<>(mainState.agents);
-        var boxes = new ArrayList<>(mainState.boxes);
+        var agents = new ArrayList<>(mainState.agents());
+        var boxes = new ArrayList<>(mainState.boxes());
 
-        agents.addAll(otherState.agents);
-        boxes.addAll(otherState.boxes);
+        agents.addAll(otherState.agents());
+        boxes.addAll(otherState.boxes());
 
         return new State(agents, boxes);
     }
@@ -611,8 +481,8 @@ public record StateSpace(
         var agents = new ArrayList<Agent>();
         var boxes = new ArrayList<Box>();
         for(var state: states){
-            agents.addAll(state.agents);
-            boxes.addAll(state.boxes);
+            agents.addAll(state.agents());
+            boxes.addAll(state.boxes());
         }
 
         return new State(agents, boxes);
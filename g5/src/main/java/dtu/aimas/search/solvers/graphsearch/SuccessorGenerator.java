@@ -0,0 +1,259 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.errors.UnreachableState;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.ActionType;
+import dtu.aimas.search.GridTopology;
+
+// Reusable joint action expansion for a single search.
+// All bookkeeping lives in scratch buffers sized on first use, so expanding a state only allocates the children.
+// The returned list is reused between calls and must be consumed before expanding the next state.
+public class SuccessorGenerator {
+    private static final Action[] ACTIONS = Action.values();
+    private static final int NO_BOX = -1;
+    private static final int NO_TARGET = Integer.MIN_VALUE;
+
+    private final StateSpace space;
+    private final GridTopology topology;
+    private final boolean timeDependent;
+    private final Random random;
+    private final boolean decompose;
+    private final boolean macroMoves;
+    private final ArrayList<State> successors = new ArrayList<>(16);
+
+    // Per agent applicable actions, flattened as [agent * ACTIONS.length + i]
+    private Action[] applicable = new Action[0];
+    // Cell the action newly occupies and the slot of the box it moves, if any
+    private int[] targetCells = new int[0];
+    private int[] boxSlots = new int[0];
+    private int[] applicableCount = new int[0];
+    private int[] permutation = new int[0];
+    private Action[] jointAction = new Action[0];
+
+    // Children are shuffled with the random when given, otherwise returned in a deterministic order.
+    // With operator decomposition the agents commit their action one at a time through intermediate nodes,
+    // so an expansion has at most one child per action instead of the product over all agents.
+    // With macro moves a single agent that moves along a corridor keeps going to its end in the same expansion,
+    // see CorridorGraph. The cells passed are still linked as parent states, so the plan keeps every step.
+    public SuccessorGenerator(StateSpace space, Random random, boolean decompose, boolean macroMoves) {
+        this.space = space;
+        this.topology = space.problem().getTopology();
+        this.timeDependent = space.problem().isTimeDependent();
+        this.random = random;
+        this.decompose = decompose;
+        // other agents and time constraints may need the agent to stop inside a corridor
+        this.macroMoves = macroMoves && !space.problem().isTimeDependent();
+    }
+
+    public SuccessorGenerator(StateSpace space, Random random, boolean decompose) {
+        this(space, random, decompose, false);
+    }
+
+    public SuccessorGenerator(StateSpace space, Random random) {
+        this(space, random, false);
+    }
+
+    public static SuccessorGenerator deterministic(StateSpace space) {
+        return new SuccessorGenerator(space, null);
+    }
+
+    public ArrayList<State> expand(State state) {
+        successors.clear();
+
+        if (decompose && state.agentCount() > 1) expandDecomposed(state);
+        else expandJoint(state);
+
+        if (random != null) Collections.shuffle(successors, random);
+
+        return successors;
+    }
+
+    private void expandJoint(State state) {
+        var agentCount = state.agentCount();
+        ensureCapacity(agentCount);
+
+        // The actions lead into the next step, which constraints are checked against
+        var timeStep = state.g() + 1;
+        for (var agent = 0; agent < agentCount; agent++) {
+            applicableCount[agent] = 0;
+            for (var action : topology.possibleActions(state.agentCell(agent))) {
+                addIfApplicable(state, agent, action, timeStep);
+            }
+            // when no action is applicable due to constraints, there are no children
+            if (applicableCount[agent] == 0) return;
+            permutation[agent] = 0;
+        }
+
+        while (true) {
+            for (var agent = 0; agent < agentCount; agent++) {
+                jointAction[agent] = applicable[agent * ACTIONS.length + permutation[agent]];
+            }
+
+            if (isConflictFree(agentCount)) {
+                var child = space.applyJointActions(state, jointAction.clone());
+                if (macroMoves && agentCount == 1 && jointAction[0].type == ActionType.Move)
+                    child = followCorridor(state, child);
+                if (space.isSafe(child)) successors.add(child);
+            }
+
+            var done = true;
+            for (var agent = 0; agent < agentCount; agent++) {
+                if (permutation[agent] < applicableCount[agent] - 1) {
+                    ++permutation[agent];
+                    done = false;
+                    break;
+                }
+                permutation[agent] = 0;
+            }
+
+            if (done) break;
+        }
+    }
+
+    private void expandDecomposed(State state) {
+        // intermediate nodes decompose the step following their parent
+        var root = state.isIntermediate() ? state.parent : state;
+        var agentCount = root.agentCount();
+        var next = state.getDecomposedAgents();
+        ensureCapacity(agentCount);
+
+        var timeStep = root.g() + 1;
+        // cells and boxes used by the agents that already committed their action
+        for (var agent = 0; agent < next; agent++) {
+            applicableCount[agent] = 0;
+            addIfApplicable(root, agent, state.jointAction[agent], timeStep);
+            if (applicableCount[agent] == 0) throw new IllegalStateException("Invalid action");
+            permutation[agent] = 0;
+        }
+
+        applicableCount[next] = 0;
+        for (var action : topology.possibleActions(root.agentCell(next))) {
+            addIfApplicable(root, next, action, timeStep);
+        }
+
+        for (var i = 0; i < applicableCount[next]; i++) {
+            permutation[next] = i;
+            if (!isConflictFree(next + 1)) continue;
+
+            var actions = new Action[agentCount];
+            if (next > 0) System.arraycopy(state.jointAction, 0, actions, 0, next);
+            actions[next] = applicable[next * ACTIONS.length + i];
+
+            if (next + 1 < agentCount) {
+                successors.add(space.applyDecomposedActions(root, actions, next + 1));
+            } else {
+                var child = space.applyJointActions(root, actions);
+                if (space.isSafe(child)) successors.add(child);
+            }
+        }
+    }
+
+    private void ensureCapacity(int agentCount) {
+        if (applicableCount.length >= agentCount) return;
+        applicable = new Action[agentCount * ACTIONS.length];
+        targetCells = new int[agentCount * ACTIONS.length];
+        boxSlots = new int[agentCount * ACTIONS.length];
+        applicableCount = new int[agentCount];
+        permutation = new int[agentCount];
+        jointAction = new Action[agentCount];
+    }
+
+    // Same rules as StateSpace.findConflictingPosition, recording which cell and box each action uses.
+    // Only actions the topology lists as possible from the agent's cell are tried, so their cells are never walls.
+    private void addIfApplicable(State state, int agent, Action action, int timeStep) {
+        var label = state.agentLabel(agent);
+        var agentCell = state.agentCell(agent);
+        switch (action.type) {
+            case NoOp -> {
+                if (!timeDependent || space.problem().isFree(agentCell, label, timeStep))
+                    add(agent, action, NO_TARGET, NO_BOX);
+            }
+            case Move -> {
+                var agentDestination = topology.agentTarget(agentCell, action);
+                if (isFree(agentDestination, state, label, timeStep)) add(agent, action, agentDestination, NO_BOX);
+            }
+            case Push, Pull -> {
+                var box = state.boxSlotAt(topology.boxSource(agentCell, action));
+                if (box < 0 || state.boxColor(box) != state.agentColor(agent)) return;
+                // the cell the push or pull newly occupies
+                var destination = action.type == ActionType.Push
+                        ? topology.boxTarget(agentCell, action)
+                        : topology.agentTarget(agentCell, action);
+                if (isFree(destination, state, label, timeStep)) add(agent, action, destination, box);
+            }
+            default -> throw new UnreachableState();
+        }
+    }
+
+    // Walls are ruled out by the topology, only time dependent problems block other cells
+    private boolean isFree(int cell, State state, char label, int timeStep) {
+        return !state.isOccupied(cell) && (!timeDependent || space.problem().isFree(cell, label, timeStep));
+    }
+
+    private void add(int agent, Action action, int targetCell, int boxSlot) {
+        var index = agent * ACTIONS.length + applicableCount[agent]++;
+        applicable[index] = action;
+        targetCells[index] = targetCell;
+        boxSlots[index] = boxSlot;
+    }
+
+    // Every applicable action only enters cells that are free in the parent state,
+    // so a joint action is valid unless two agents enter the same cell or move the same box.
+    private boolean isConflictFree(int agentCount) {
+        for (var agent = 0; agent < agentCount; agent++) {
+            var index = agent * ACTIONS.length + permutation[agent];
+            var target = targetCells[index];
+            var box = boxSlots[index];
+            for (var other = agent + 1; other < agentCount; other++) {
+                var otherIndex = other * ACTIONS.length + permutation[other];
+                if (target != NO_TARGET && targetCells[otherIndex] == target) return false;
+                if (box != NO_BOX && boxSlots[otherIndex] == box) return false;
+            }
+        }
+        return true;
+    }
+
+    // Continues a move into or along a corridor until its end. The agent stops early in front of an occupied cell and on
+    // its own goal, the only places inside a corridor where a single agent could need to stop.
+    private State followCorridor(State parent, State child) {
+        var corridors = space.problem().getCorridors();
+        var cell = child.agentCell(0);
+        var chain = corridors.chainAt(cell);
+        if (chain == null || chain.length() == 1) return child;
+
+        var index = corridors.indexInChain(cell);
+        var previous = parent.agentCell(0);
+        int step;
+        if (corridors.chainAt(previous) == chain) step = index - corridors.indexInChain(previous);
+        else if (index == 0) step = 1;
+        else if (index == chain.length() - 1) step = -1;
+        else return child;
+
+        var label = child.agentLabel(0);
+        var goals = space.problem().goals;
+        var state = child;
+        for (var next = index + step; next >= 0 && next < chain.length(); next += step) {
+            if (goals[Position.rowOf(cell)][Position.colOf(cell)] == label) break;
+            var nextCell = chain.cells()[next];
+            if (!space.isCellFree(nextCell, state, label, state.g() + 1)) break;
+            state = space.applyJointActions(state, new Action[]{moveBetween(cell, nextCell)});
+            cell = nextCell;
+        }
+        return state;
+    }
+
+    private static Action moveBetween(int from, int to) {
+        var rowDelta = Position.rowOf(to) - Position.rowOf(from);
+        var colDelta = Position.colOf(to) - Position.colOf(from);
+        for (var action : ACTIONS) {
+            if (action.type == ActionType.Move && action.agentRowDelta == rowDelta && action.agentColDelta == colDelta)
+                return action;
+        }
+        throw new UnreachableState();
+    }
+}
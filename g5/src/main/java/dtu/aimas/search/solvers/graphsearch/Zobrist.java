@@ -0,0 +1,43 @@
+package dtu.aimas.search.solvers.graphsearch;
+
+// 64-bit Zobrist keys for agent and box slots on packed cells.
+// Keys are derived by mixing slot and cell instead of being drawn from a table,
+// since packed cells are not bounded by a level size known up front.
+public final class Zobrist {
+    private static final long AGENT_SEED = 0x6A09E667F3BCC909L;
+    private static final long BOX_SEED = 0xBB67AE8584CAA73BL;
+    private static final long STEP_SEED = 0x3C6EF372FE94F82BL;
+    private static final long DECOMPOSITION_SEED = 0xA54FF53A5F1D36F1L;
+
+    private Zobrist() {}
+
+    public static long agent(int slot, int cell) {
+        return mix(AGENT_SEED ^ ((long) slot << 32 | cell & 0xFFFFFFFFL));
+    }
+
+    public static long box(int slot, int cell) {
+        return mix(BOX_SEED ^ ((long) slot << 32 | cell & 0xFFFFFFFFL));
+    }
+
+    public static long step(int g) {
+        return mix(STEP_SEED ^ g);
+    }
+
+    public static long decomposition(int decomposedAgents, long parentKey) {
+        return mix(DECOMPOSITION_SEED ^ decomposedAgents ^ parentKey);
+    }
+
+    public static long of(int[] agentCells, int[] boxCells) {
+        var result = 0L;
+        for (var slot = 0; slot < agentCells.length; slot++) result ^= agent(slot, agentCells[slot]);
+        for (var slot = 0; slot < boxCells.length; slot++) result ^= box(slot, boxCells[slot]);
+        return result;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+}
@@ -1,7 +1,5 @@
 package dtu.aimas.search.solvers.heuristics;
 
-import dtu.aimas.search.solvers.graphsearch.State;
-import dtu.aimas.search.solvers.graphsearch.StateSpace;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -14,7 +12,7 @@ public class AStarHeuristic extends Heuristic {
     }
 
     @Override
-    public int f(State s, StateSpace space) {
-        return s.g() + cost.calculate(s, space);
+    public int f(int g, int h) {
+        return g + h;
     }
 }
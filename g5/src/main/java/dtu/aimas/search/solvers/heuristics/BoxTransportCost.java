@@ -0,0 +1,64 @@
+package dtu.aimas.search.solvers.heuristics;
+
+import dtu.aimas.common.Goal;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.graphsearch.StateSpace;
+
+// Like DistanceSumCost, but boxes are measured by the moves they need when pushed and pulled (Problem.boxDist)
+// instead of their walking distance, which accounts for corners, dead ends and corridors a box can only leave one way.
+public class BoxTransportCost implements Cost {
+    @Override
+    public int calculate(State state, StateSpace space) {
+        var problem = space.problem();
+        var result = 0;
+
+        for(var goal: problem.agentGoals){
+            result += DistanceSumCost.agentGoalDistance(state, goal, problem);
+        }
+
+        for(var goal : problem.boxGoals){
+            result += boxGoalDistance(state, goal, problem);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int calculate(State state, State parent, int parentCost, StateSpace space) {
+        var moves = Moves.between(parent, state);
+        if(moves == null) return calculate(state, space);
+
+        var problem = space.problem();
+        var result = parentCost;
+        if(moves.agents.length > 0){
+            for(var goal: problem.agentGoals){
+                var agent = state.agentSlot(goal.label);
+                if(agent >= 0 && !moves.movedAgent(agent)) continue;
+                result += DistanceSumCost.agentGoalDistance(state, goal, problem)
+                        - DistanceSumCost.agentGoalDistance(parent, goal, problem);
+            }
+        }
+
+        if(moves.boxes.length > 0){
+            for(var goal : problem.boxGoals){
+                if(!moves.movedBoxLabeled(state, goal.label)) continue;
+                result += boxGoalDistance(state, goal, problem) - boxGoalDistance(parent, goal, problem);
+            }
+        }
+
+        return result;
+    }
+
+    // Moves of the closest box with the label of the goal, or 0 if none can reach it
+    static int boxGoalDistance(State state, Goal goal, Problem problem) {
+        var destination = goal.destination.cell();
+        var minGoalDistance = Integer.MAX_VALUE;
+        for(var box = 0; box < state.boxCount(); box++){
+            if(state.boxLabel(box) != goal.label) continue;
+            minGoalDistance = Math.min(minGoalDistance, problem.boxDist(state.boxCell(box), destination));
+        }
+
+        return minGoalDistance == Integer.MAX_VALUE ? 0 : minGoalDistance;
+    }
+}
@@ -26,7 +26,8 @@ public class ConflictPenalizedCost implements Cost {
         var result = baseCost.calculate(state, space);
 
         var step = state.g();
-        if(step == 0) return result;
+        // conflicts are only checked once every agent committed its action
+        if(step == 0 || state.isIntermediate()) return result;
 
         var problem = space.problem();
         var conflictPenalty = problem.walls.length * problem.walls[0].length;
@@ -55,14 +56,14 @@ public class ConflictPenalizedCost implements Cost {
         var previousState = combineState(prevMainState, prevOtherState);
 
         // TODO : Refactor duplicated logic from blackboard solver
-        for(var i = 0; i < state.agents.size(); i++){
-            if(space.isApplicable(previousState, state.parent.agents.get(i), state.jointAction[i])) continue;
+        for(var i = 0; i < state.agentCount(); i++){
+            if(space.isApplicable(previousState, state.parent.agents().get(i), state.jointAction[i])) continue;
             return true;
         }
 
         if(step < solution.size() && otherState.jointAction != null){ // If other solution is finished its noop'ing
-            for(var i = 0; i < otherState.agents.size(); i++){
-                if(space.isApplicable(previousState, prevOtherState.agents.get(i), otherState.jointAction[i])) continue;
+            for(var i = 0; i < otherState.agentCount(); i++){
+                if(space.isApplicable(previousState, prevOtherState.agents().get(i), otherState.jointAction[i])) continue;
                 return true;
             }
         }
@@ -73,11 +74,11 @@ public class ConflictPenalizedCost implements Cost {
     private State combineState(State mainState, State otherState){
         var agents = new ArrayList<Agent>();
         var boxes = new ArrayList<Box>();
-        agents.addAll(mainState.agents);
-        boxes.addAll(mainState.boxes);
+        agents.addAll(mainState.agents());
+        boxes.addAll(mainState.boxes());
 
-        agents.addAll(otherState.agents);
-        boxes.addAll(otherState.boxes);
+        agents.addAll(otherState.agents());
+        boxes.addAll(otherState.boxes());
 
         return new State(agents, boxes);
     }
@@ -0,0 +1,47 @@
+package dtu.aimas.search.solvers.heuristics;
+
+import dtu.aimas.search.CorridorGraph;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.graphsearch.StateSpace;
+
+// Longest of the goal distances through the corridor graph (CorridorGraph.lowerBound), counting for a box goal the
+// closest box with its label. Every step moves an agent or box at most one cell, so the plan is at least that long.
+public class CorridorBoundCost implements Cost {
+    @Override
+    public int calculate(State state, StateSpace space) {
+        var problem = space.problem();
+        var corridors = problem.getCorridors();
+        var result = 0;
+
+        for(var goal: problem.agentGoals){
+            var agent = state.agentSlot(goal.label);
+            if(agent < 0) throw new IllegalStateException("Unsatisfiable goal");
+            result = Math.max(result, bound(corridors, state.agentCell(agent), goal.destination.cell()));
+        }
+
+        for(var goal : problem.boxGoals){
+            var destination = goal.destination.cell();
+            var closest = Integer.MAX_VALUE;
+            for(var box = 0; box < state.boxCount(); box++){
+                if(state.boxLabel(box) != goal.label) continue;
+                var distance = corridors.lowerBound(state.boxCell(box), destination);
+                if(distance != DistanceOracle.UNREACHABLE) closest = Math.min(closest, distance);
+            }
+            if(closest != Integer.MAX_VALUE) result = Math.max(result, closest);
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isAdmissible() {
+        return true;
+    }
+
+    // Unreachable goals are left to the search to rule out
+    private static int bound(CorridorGraph corridors, int from, int to) {
+        var distance = corridors.lowerBound(from, to);
+        return distance == DistanceOracle.UNREACHABLE ? 0 : distance;
+    }
+}
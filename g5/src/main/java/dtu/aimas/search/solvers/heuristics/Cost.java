@@ -5,4 +5,15 @@ import dtu.aimas.search.solvers.graphsearch.StateSpace;
 
 public interface Cost {
     int calculate(State state, StateSpace space);
+
+    // Cost of a state updated from the cost of its parent, only looking at the agents and boxes that moved.
+    // Costs that cannot be updated incrementally fall back to the full calculation.
+    default int calculate(State state, State parent, int parentCost, StateSpace space) {
+        return calculate(state, space);
+    }
+
+    // True if the cost never exceeds the length of the shortest remaining plan, so it can be used to prune states
+    default boolean isAdmissible() {
+        return false;
+    }
 }
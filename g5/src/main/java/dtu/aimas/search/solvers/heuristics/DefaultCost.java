@@ -12,4 +12,9 @@ public class DefaultCost implements Cost{
     public int calculate(State state, StateSpace space) {
         return 0;
     }
+
+    @Override
+    public boolean isAdmissible() {
+        return true;
+    }
 }
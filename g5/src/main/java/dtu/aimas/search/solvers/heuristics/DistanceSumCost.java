@@ -1,5 +1,7 @@
 package dtu.aimas.search.solvers.heuristics;
 
+import dtu.aimas.common.Goal;
+import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.graphsearch.State;
 import dtu.aimas.search.solvers.graphsearch.StateSpace;
 
@@ -10,21 +12,60 @@ public class DistanceSumCost implements Cost {
         var result = 0;
 
         for(var goal: problem.agentGoals){
-            var agent = state.agents.stream().filter(a -> a.label == goal.label).findAny();
-            if(agent.isEmpty()) throw new IllegalStateException("Unsatisfiable goal");
-            result += problem.admissibleDist(agent.get().pos, goal.destination);
+            result += agentGoalDistance(state, goal, problem);
         }
 
         for(var goal : problem.boxGoals){
-            var minGoalDistance = state.boxes.stream()
-                    .filter(b -> b.label == goal.label)
-                    .map(b -> problem.admissibleDist(b.pos, goal.destination))
-                    .min(Integer::compareTo)
-                    .orElse(0);
-
-            result += minGoalDistance;
+            result += boxGoalDistance(state, goal, problem);
         }
 
         return result;
     }
+
+    @Override
+    public int calculate(State state, State parent, int parentCost, StateSpace space) {
+        var moves = Moves.between(parent, state);
+        if(moves == null) return calculate(state, space);
+        return parentCost + goalDistanceDelta(state, parent, moves, space.problem());
+    }
+
+    // Change of the goal distances, only recalculating the goals of the agents and boxes that moved
+    static int goalDistanceDelta(State state, State parent, Moves moves, Problem problem) {
+        var delta = 0;
+
+        if(moves.agents.length > 0){
+            for(var goal: problem.agentGoals){
+                var agent = state.agentSlot(goal.label);
+                if(agent >= 0 && !moves.movedAgent(agent)) continue;
+                delta += agentGoalDistance(state, goal, problem) - agentGoalDistance(parent, goal, problem);
+            }
+        }
+
+        if(moves.boxes.length > 0){
+            for(var goal : problem.boxGoals){
+                if(!moves.movedBoxLabeled(state, goal.label)) continue;
+                delta += boxGoalDistance(state, goal, problem) - boxGoalDistance(parent, goal, problem);
+            }
+        }
+
+        return delta;
+    }
+
+    static int agentGoalDistance(State state, Goal goal, Problem problem) {
+        var agent = state.agentSlot(goal.label);
+        if(agent < 0) throw new IllegalStateException("Unsatisfiable goal");
+        return problem.admissibleDist(state.agentCell(agent), goal.destination.cell());
+    }
+
+    // Distance of the closest box with the label of the goal, or 0 if none can reach it
+    static int boxGoalDistance(State state, Goal goal, Problem problem) {
+        var destination = goal.destination.cell();
+        var minGoalDistance = Integer.MAX_VALUE;
+        for(var box = 0; box < state.boxCount(); box++){
+            if(state.boxLabel(box) != goal.label) continue;
+            minGoalDistance = Math.min(minGoalDistance, problem.admissibleDist(state.boxCell(box), destination));
+        }
+
+        return minGoalDistance == Integer.MAX_VALUE ? 0 : minGoalDistance;
+    }
 }
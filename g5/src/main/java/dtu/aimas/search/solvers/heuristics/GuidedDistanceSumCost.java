@@ -1,10 +1,10 @@
 package dtu.aimas.search.solvers.heuristics;
 
+import dtu.aimas.common.Agent;
+import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.graphsearch.State;
 import dtu.aimas.search.solvers.graphsearch.StateSpace;
 
-import java.util.Comparator;
-
 public class GuidedDistanceSumCost implements Cost {
     @Override
     public int calculate(State state, StateSpace space) {
@@ -12,38 +12,56 @@ public class GuidedDistanceSumCost implements Cost {
         var result = 0;
 
         for(var goal: problem.agentGoals){
-            var agent = state.agents.stream().filter(a -> a.label == goal.label).findAny();
-            if(agent.isEmpty()) throw new IllegalStateException("Unsatisfiable goal");
-            result += problem.admissibleDist(agent.get().pos, goal.destination);
+            result += DistanceSumCost.agentGoalDistance(state, goal, problem);
         }
 
         for(var goal : problem.boxGoals){
-            var minGoalDistance = state.boxes.stream()
-                    .filter(b -> b.label == goal.label)
-                    .map(b -> problem.admissibleDist(b.pos, goal.destination))
-                    .min(Integer::compareTo)
-                    .orElse(0);
+            result += DistanceSumCost.boxGoalDistance(state, goal, problem);
+        }
 
-            result += minGoalDistance;
+        for(var agent : problem.agents) {
+            result += guidanceDistance(state, agent, problem);
         }
 
+        return result;
+    }
+
+    @Override
+    public int calculate(State state, State parent, int parentCost, StateSpace space) {
+        var moves = Moves.between(parent, state);
+        if(moves == null) return calculate(state, space);
+
+        var problem = space.problem();
+        var result = parentCost + DistanceSumCost.goalDistanceDelta(state, parent, moves, problem);
+        if(moves.boxes.length == 0) return result;
+
+        // the guidance only depends on the boxes of the agent's color
         for(var agent : problem.agents) {
-            var colorBoxes = state.boxes.stream().filter(b -> b.color.equals(agent.color)).toList();
-            if(colorBoxes.isEmpty()) continue;
-            var shortestBoxGoalDist = Integer.MAX_VALUE;
-            for(var box : colorBoxes) {
-                var shortestDist = problem.boxGoals.stream()
-                        .filter(g -> g.label == box.label)
-                        .map(g -> problem.admissibleDist(g.destination, box.pos))
-                        .min(Comparator.naturalOrder()).orElse(Integer.MAX_VALUE);
-                if (shortestDist == Integer.MAX_VALUE || shortestDist == 0) continue;
-                shortestDist += problem.admissibleDist(agent.pos, box.pos);
-                if(shortestDist < shortestBoxGoalDist)
-                    shortestBoxGoalDist = shortestDist;
-            }
-            if (shortestBoxGoalDist != Integer.MAX_VALUE) result += shortestBoxGoalDist;
+            if(!moves.movedBoxColored(state, agent.color)) continue;
+            result += guidanceDistance(state, agent, problem) - guidanceDistance(parent, agent, problem);
         }
 
         return result;
     }
+
+    // Shortest way from the initial cell of the agent through a box of its color not yet on a goal to a goal of the box
+    private static int guidanceDistance(State state, Agent agent, Problem problem) {
+        var agentCell = agent.pos.cell();
+        var shortestBoxGoalDist = Integer.MAX_VALUE;
+        for(var box = 0; box < state.boxCount(); box++) {
+            if(state.boxColor(box) != agent.color) continue;
+            var boxCell = state.boxCell(box);
+            var boxLabel = state.boxLabel(box);
+            var shortestDist = Integer.MAX_VALUE;
+            for(var goal : problem.boxGoals) {
+                if(goal.label != boxLabel) continue;
+                shortestDist = Math.min(shortestDist, problem.admissibleDist(goal.destination.cell(), boxCell));
+            }
+            if (shortestDist == Integer.MAX_VALUE || shortestDist == 0) continue;
+            shortestDist += problem.admissibleDist(agentCell, boxCell);
+            if(shortestDist < shortestBoxGoalDist)
+                shortestBoxGoalDist = shortestDist;
+        }
+        return shortestBoxGoalDist == Integer.MAX_VALUE ? 0 : shortestBoxGoalDist;
+    }
 }
@@ -1,33 +1,65 @@
 package dtu.aimas.search.solvers.heuristics;
 
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import dtu.aimas.search.solvers.graphsearch.State;
 import dtu.aimas.search.solvers.graphsearch.StateSpace;
+import lombok.Getter;
+import lombok.Setter;
 
 public abstract class Heuristic implements Comparator<State> {
-    private StateSpace space;
-    private final HashMap<State, Integer> cache;
+    private static final AtomicInteger epochs = new AtomicInteger();
 
-    protected Heuristic() {
-        this.cache = new HashMap<>();
-    }
+    private StateSpace space;
+    // h and f are stored in the states, tagged with the epoch so values from earlier searches are not reused
+    private int epoch = epochs.incrementAndGet();
+    // Optional cache of h values for states generated more than once
+    @Getter @Setter
+    private HeuristicCache cache;
 
     public StateSpace attachStateSpace(StateSpace space) {
         this.space = space;
         return space;
     }
 
-    public abstract int f(State s, StateSpace space);
+    public abstract int f(int g, int h);
     public abstract Cost getCost();
 
-    public void reset(){cache.clear();};
+    public void reset(){
+        epoch = epochs.incrementAndGet();
+        if(cache != null) cache.clear();
+    }
+
     public int compare(State fst, State snd) {
         return Integer.compare(f(fst), f(snd));
     }
 
+    // Evaluates the state without storing the result
+    public int f(State s, StateSpace space) {
+        return f(s.g(), getCost().calculate(s, space));
+    }
+
     public int f(State s) {
-        return cache.computeIfAbsent(s, state -> f(state, space));
+        evaluate(s);
+        return s.f();
+    }
+
+    public int h(State s) {
+        evaluate(s);
+        return s.h();
+    }
+
+    private void evaluate(State s) {
+        if(s.isEvaluatedIn(epoch)) return;
+        var h = cache == null ? h(s, space) : cache.computeIfAbsent(s, state -> h(state, space));
+        s.setEvaluation(epoch, h, f(s.g(), h));
+    }
+
+    // Updates the h of the parent when it was evaluated by this search
+    private int h(State s, StateSpace space) {
+        var parent = s.parent;
+        if(parent != null && parent.isEvaluatedIn(epoch)) return getCost().calculate(s, parent, parent.h(), space);
+        return getCost().calculate(s, space);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package dtu.aimas.search.solvers.heuristics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import dtu.aimas.search.solvers.graphsearch.State;
+import lombok.Getter;
+
+// Bounded cache of h values, evicting the least recently used state once full.
+// Only useful when equal states are generated repeatedly, as every state already keeps its own h once evaluated.
+public class HeuristicCache {
+    @Getter
+    private final int capacity;
+    private final LinkedHashMap<State, Integer> entries;
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+    @Getter
+    private long evictions;
+
+    public HeuristicCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Cache capacity must be positive");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<State, Integer> eldest) {
+                if (size() <= HeuristicCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public int computeIfAbsent(State state, ToIntFunction<State> h) {
+        var cached = entries.get(state);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        var value = h.applyAsInt(state);
+        entries.put(state, value);
+        return value;
+    }
+
+    public double hitRate() {
+        var lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HeuristicCache{Size=%d/%d; HitRate=%.3f; Evictions=%d}", size(), capacity, hitRate(), evictions);
+    }
+}
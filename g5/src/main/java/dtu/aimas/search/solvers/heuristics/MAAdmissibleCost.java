@@ -1,10 +1,5 @@
 package dtu.aimas.search.solvers.heuristics;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-import dtu.aimas.common.Agent;
-import dtu.aimas.common.Box;
 import dtu.aimas.common.Goal;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.graphsearch.State;
@@ -14,31 +9,32 @@ public class MAAdmissibleCost implements Cost {
     //Not accurate if there are more boxgoals than agents
     public int calculate(State state, StateSpace space) {
         Problem problem = space.problem();
-        var allBoxes = state.boxes;
-        var allAgents = state.agents;
         // We want the cost of completing the longest goal in the shortest way possible
         // All other goals will (should) be completed while the longest one is completed, so cost is admissible
         int longestGoalCompletionDist = 0;
         for(Goal goal : problem.boxGoals) {
+            var goalCell = goal.destination.cell();
             // Find shortest way to complete goal (test the best box-agent combination to do so)
             int minGoalCompleteDist = Integer.MAX_VALUE;
-            List<Box> boxes = allBoxes.stream().filter(b -> b.label == goal.label).collect(Collectors.toList());
-            for(Box box : boxes) {
+            for(var box = 0; box < state.boxCount(); box++) {
+                if(state.boxLabel(box) != goal.label) continue;
+                var boxCell = state.boxCell(box);
                 // Find shortest way to get box to goal
                 int minBoxGoalDist = Integer.MAX_VALUE;
-                int boxGoalDist = problem.admissibleDist(box.pos, goal.destination);
+                int boxGoalDist = problem.admissibleDist(boxCell, goalCell);
                 if(boxGoalDist == Integer.MAX_VALUE) continue;
-                List<Agent> agents = allAgents.stream().filter(a -> a.color == box.color).collect(Collectors.toList());
-                for(Agent agent : agents) {
+                for(var agent = 0; agent < state.agentCount(); agent++) {
+                    if(state.agentColor(agent) != state.boxColor(box)) continue;
                     int agentGoalDist = 0;
-                    List<Goal> agentGoals = problem.agentGoals.stream().filter(agoal -> agoal.label == agent.label).collect(Collectors.toList());
+                    var agentLabel = state.agentLabel(agent);
+                    var agentGoal = problem.agentGoals.stream().filter(agoal -> agoal.label == agentLabel).findFirst();
                     // Agents don't have to have goals, but if they do, they only have one
-                    if(!agentGoals.isEmpty()) {
-                        agentGoalDist = problem.admissibleDist(goal.destination, agentGoals.get(0).destination);
+                    if(agentGoal.isPresent()) {
+                        agentGoalDist = problem.admissibleDist(goalCell, agentGoal.get().destination.cell());
                         if(agentGoalDist == Integer.MAX_VALUE) continue;
                     }
                     //the cost for agent to take box to goal is the distance between agent -> box -> goal + agent -> agentGoal
-                    int agentBoxDist = problem.admissibleDist(agent.pos, box.pos);
+                    int agentBoxDist = problem.admissibleDist(state.agentCell(agent), boxCell);
                     if(agentBoxDist == Integer.MAX_VALUE) continue;
                     int dist =  agentBoxDist + boxGoalDist + agentGoalDist;
                     //if one of the costs is max value, then the sum will be negative.
@@ -0,0 +1,64 @@
+package dtu.aimas.search.solvers.heuristics;
+
+import dtu.aimas.common.Color;
+import dtu.aimas.search.solvers.graphsearch.State;
+
+// Agent and box slots whose cell differs between a state and its parent
+final class Moves {
+    final int[] agents;
+    final int[] boxes;
+
+    private Moves(int[] agents, int[] boxes) {
+        this.agents = agents;
+        this.boxes = boxes;
+    }
+
+    // Null if the states do not share their slots, in which case costs must be calculated in full
+    static Moves between(State parent, State state) {
+        if (!parent.getLayout().equals(state.getLayout())) return null;
+
+        var agents = new int[state.agentCount()];
+        var agentCount = 0;
+        for (var slot = 0; slot < agents.length; slot++) {
+            if (state.agentCell(slot) != parent.agentCell(slot)) agents[agentCount++] = slot;
+        }
+
+        var boxCount = 0;
+        var boxes = new int[0];
+        if (!state.sharesBoxCells(parent)) {
+            boxes = new int[state.boxCount()];
+            for (var slot = 0; slot < boxes.length; slot++) {
+                if (state.boxCell(slot) != parent.boxCell(slot)) boxes[boxCount++] = slot;
+            }
+        }
+
+        return new Moves(trim(agents, agentCount), trim(boxes, boxCount));
+    }
+
+    private static int[] trim(int[] slots, int count) {
+        if (count == slots.length) return slots;
+        var result = new int[count];
+        System.arraycopy(slots, 0, result, 0, count);
+        return result;
+    }
+
+    boolean movedAgent(int slot) {
+        for (var agent : agents) if (agent == slot) return true;
+        return false;
+    }
+
+    boolean movedBoxLabeled(State state, char label) {
+        for (var box : boxes) if (state.boxLabel(box) == label) return true;
+        return false;
+    }
+
+    boolean movedBoxColored(State state, Color color) {
+        for (var box : boxes) if (state.boxColor(box) == color) return true;
+        return false;
+    }
+
+    boolean movedAgentColored(State state, Color color) {
+        for (var agent : agents) if (state.agentColor(agent) == color) return true;
+        return false;
+    }
+}
@@ -1,14 +1,6 @@
 package dtu.aimas.search.solvers.heuristics;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-
-import dtu.aimas.common.Box;
-import dtu.aimas.common.Position;
-import dtu.aimas.communication.IO;
+import dtu.aimas.common.Goal;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.graphsearch.State;
 import dtu.aimas.search.solvers.graphsearch.StateSpace;
@@ -20,36 +12,70 @@ public class SingleGoalDistanceCost implements Cost {
         var result = 0;
 
         for(var goal : problem.boxGoals){
-            if(state.boxes.stream().anyMatch(b -> b.label == goal.label && b.pos.equals(goal.destination)))
-                continue;
-            var compatibleBoxes = state.boxes.stream().filter(b -> b.label == goal.label).toList();
-            var closestBox = compatibleBoxes.get(0);
-            var minDist = Integer.MAX_VALUE;
-            for(Box box : compatibleBoxes) {
-                var dist = problem.admissibleDist(box.pos, goal.destination);
-                if(dist < minDist) {
-                    closestBox = box;
-                    minDist = dist;
-                }
-            }
-            result += minDist;
-            //distance to box being solved
-            if(minDist > 0) {
-                Box b = closestBox;
-                var agent = state.agents.stream().filter(a -> a.color == b.color).findFirst().get();
-                result += problem.admissibleDist(agent.pos, closestBox.pos)-1;
-            }
-            
+            result += boxGoalDistance(state, goal, problem);
         }
         //if(result < 2)IO.info(result);
         //if(result > 0) result += 10; //penalty to keep agent from going to his goal
 
         for(var goal: problem.agentGoals){
-            var agent = state.agents.stream().filter(a -> a.label == goal.label).findAny();
-            if(agent.isEmpty()) throw new IllegalStateException("Unsatisfiable goal");
-            result += problem.admissibleDist(agent.get().pos, goal.destination);
+            result += DistanceSumCost.agentGoalDistance(state, goal, problem);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int calculate(State state, State parent, int parentCost, StateSpace space) {
+        var moves = Moves.between(parent, state);
+        if(moves == null) return calculate(state, space);
+
+        var problem = space.problem();
+        var result = parentCost;
+        for(var goal : problem.boxGoals){
+            // a goal depends on the boxes of its label and on the agent solving them
+            if(!moves.movedBoxLabeled(state, goal.label) && !movedSolvingAgent(state, goal, moves)) continue;
+            result += boxGoalDistance(state, goal, problem) - boxGoalDistance(parent, goal, problem);
+        }
+
+        if(moves.agents.length == 0) return result;
+        for(var goal: problem.agentGoals){
+            var agent = state.agentSlot(goal.label);
+            if(agent >= 0 && !moves.movedAgent(agent)) continue;
+            result += DistanceSumCost.agentGoalDistance(state, goal, problem) - DistanceSumCost.agentGoalDistance(parent, goal, problem);
         }
 
         return result;
     }
+
+    private static boolean movedSolvingAgent(State state, Goal goal, Moves moves) {
+        if(moves.agents.length == 0) return false;
+        for(var box = 0; box < state.boxCount(); box++) {
+            if(state.boxLabel(box) == goal.label && moves.movedAgentColored(state, state.boxColor(box))) return true;
+        }
+        return false;
+    }
+
+    // Distance of the closest box to the goal plus the distance of the first agent of its color to that box
+    private static int boxGoalDistance(State state, Goal goal, Problem problem) {
+        var destination = goal.destination.cell();
+        var closestBox = -1;
+        var minDist = Integer.MAX_VALUE;
+        for(var box = 0; box < state.boxCount(); box++) {
+            if(state.boxLabel(box) != goal.label) continue;
+            var dist = problem.admissibleDist(state.boxCell(box), destination);
+            if(closestBox < 0 || dist < minDist) {
+                closestBox = box;
+                minDist = dist;
+            }
+        }
+        if(closestBox < 0) throw new IllegalStateException("Unsatisfiable goal");
+        if(minDist == 0) return 0;
+        //distance to box being solved
+        var agent = -1;
+        for(var a = 0; a < state.agentCount() && agent < 0; a++) {
+            if(state.agentColor(a) == state.boxColor(closestBox)) agent = a;
+        }
+        if(agent < 0) throw new IllegalStateException("Unsatisfiable goal");
+        return minDist + problem.admissibleDist(state.agentCell(agent), state.boxCell(closestBox)) - 1;
+    }
 }
@@ -1,7 +1,5 @@
 package dtu.aimas.search.solvers.heuristics;
 
-import dtu.aimas.search.solvers.graphsearch.State;
-import dtu.aimas.search.solvers.graphsearch.StateSpace;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -17,7 +15,7 @@ public class WAStarHeuristic extends Heuristic {
     }
 
     @Override
-    public int f(State s, StateSpace space) {
-        return (int)(s.g() + w * cost.calculate(s, space));
+    public int f(int g, int h) {
+        return (int)(g + w * h);
     }
 }
@@ -200,10 +200,10 @@ public class SafePathSolver implements Solver {
     }
     private List<ReservedCell> getStaticReserves(State state, int duration){
         var reserves = new ArrayList<ReservedCell>();
-        for(var box: state.boxes){
+        for(var box: state.boxes()){
             reserves.add(new ReservedCell(box.pos, new TimeInterval(state.g(), state.g()+duration)));
         }
-        for(var agent: state.agents){
+        for(var agent: state.agents()){
             reserves.add(new ReservedCell(agent.pos, new TimeInterval(state.g(), state.g()+duration)));
         }
         return reserves;
@@ -211,8 +211,8 @@ public class SafePathSolver implements Solver {
 
     private List<ReservedCell> getActionReserves(State state, State parent, StateSpace space){
         var reserves = new ArrayList<ReservedCell>();
-        for(var i = 0; i < parent.agents.size(); i++){
-            var agent = parent.agents.get(i);
+        for(var i = 0; i < parent.agents().size(); i++){
+            var agent = parent.agents().get(i);
             var action = state.jointAction[i];
             var futureReserveResult = space.getPossibleConflictPosition(parent, agent, action);
             if(futureReserveResult.isEmpty()) continue;
@@ -3,6 +3,7 @@ package dtu.aimas.search.solvers.safeinterval;
 import dtu.aimas.common.Agent;
 import dtu.aimas.common.Box;
 import dtu.aimas.common.Position;
+import dtu.aimas.search.DistanceOracle;
 import dtu.aimas.search.Problem;
 import dtu.aimas.search.solvers.graphsearch.State;
 
@@ -17,6 +18,13 @@ public class SafeProblem extends Problem {
         this.conflictingIntervals = conflictingIntervals;
     }
 
+    private SafeProblem(Collection<Agent> agentCollection, Collection<Box> boxCollection,
+                        boolean[][] walls, char[][] goals,
+                        Map<Position, List<TimeInterval>> conflictingIntervals, DistanceOracle distances) {
+        super(agentCollection, boxCollection, walls, goals, distances);
+        this.conflictingIntervals = conflictingIntervals;
+    }
+
     public SafeProblem(Collection<Agent> agentCollection, Collection<Box> boxCollection,
                        boolean[][] walls, char[][] goals) {
         this(agentCollection, boxCollection, walls, goals, new HashMap<>());
@@ -63,54 +71,61 @@ public class SafeProblem extends Problem {
                     safeProblem.boxes,
                     safeProblem.walls,
                     safeProblem.goals,
-                    safeProblem.conflictingIntervals);
+                    safeProblem.conflictingIntervals,
+                    safeProblem.getDistances());
         }
 
         return new SafeProblem(
                 problem.agents,
                 problem.boxes,
                 problem.walls,
-                problem.goals);
+                problem.goals,
+                new HashMap<>(),
+                problem.getDistances());
     }
 
-    public boolean isFree(Position pos, Agent agent, int timeStep) {
-        if(!super.isFree(pos, agent, timeStep)) return false;
+    public boolean isFree(int cell, char agentLabel, int timeStep) {
+        if(!super.isFree(cell, agentLabel, timeStep)) return false;
 
-        var intervals = conflictingIntervals.get(pos);
+        var intervals = conflictingIntervals.get(Position.fromCell(cell));
         if(intervals == null) return true;
         return intervals.stream().noneMatch(i -> i.contains(timeStep));
     }
 
+    public boolean isTimeDependent() {
+        return true;
+    }
+
     public boolean validGoalState(State state){
         final int step = state.g();
-        for(var agent: state.agents){
-            var hasFutureConflict = conflictingIntervals
-                    .getOrDefault(agent.pos, List.of())
-                    .stream().anyMatch(i -> i.futureOverlap(step));
-            if(hasFutureConflict) return false;
+        for(var i = 0; i < state.agentCount(); i++){
+            if(hasFutureConflict(state.agentCell(i), step)) return false;
         }
-        for(var box: state.boxes){
-            var hasFutureConflict = conflictingIntervals
-                    .getOrDefault(box.pos, List.of())
-                    .stream().anyMatch(i -> i.futureOverlap(step));
-            if(hasFutureConflict) return false;
+        for(var i = 0; i < state.boxCount(); i++){
+            if(hasFutureConflict(state.boxCell(i), step)) return false;
         }
 
         return true;
     }
 
+    private boolean hasFutureConflict(int cell, int step){
+        return conflictingIntervals
+                .getOrDefault(Position.fromCell(cell), List.of())
+                .stream().anyMatch(i -> i.futureOverlap(step));
+    }
+
     @Override
     public Problem copyWith(List<Agent> agents, List<Box> boxes, char[][] goals) {
-        return new SafeProblem(agents, boxes, this.walls, goals, conflictingIntervals);
+        return new SafeProblem(agents, boxes, this.walls, goals, conflictingIntervals, getDistances());
     }
 
     @Override
     public Problem copyWith(List<Agent> agents, List<Box> boxes, char[][] goals, boolean[][] walls) {
-        return new SafeProblem(agents, boxes, walls, goals, conflictingIntervals).precompute();
+        return new SafeProblem(agents, boxes, walls, goals, conflictingIntervals, distancesFor(walls));
     }
 
     public SafeProblem copy(){
-        var clone = new SafeProblem(agents, boxes, walls, goals, new HashMap<>(conflictingIntervals.size()));
+        var clone = new SafeProblem(agents, boxes, walls, goals, new HashMap<>(conflictingIntervals.size()), getDistances());
         for(var entry: conflictingIntervals.entrySet()){
             // todo instead of interval list, it could walk up the ancestor intervals
             clone.conflictingIntervals.put(entry.getKey(), new ArrayList<>(entry.getValue()));
@@ -0,0 +1,93 @@
+package dtu.aimas;
+
+import static dtu.aimas.helpers.LevelHelper.getProblem;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.LevelSolver;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.graphsearch.AnytimeWAStar;
+import dtu.aimas.search.solvers.graphsearch.BFS;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+
+public class AnytimeWAStarTest {
+    @Test
+    public void Plans_Should_ImproveUntilOptimal() {
+        var lengths = new ArrayList<Integer>();
+        var solver = new AnytimeWAStar(new DistanceSumCost(), 10, 60_000);
+        solver.setOnImprovement(solution -> lengths.add(solution.getMakespan()));
+
+        var result = LevelSolver.solve("SAsoko3_04", IO.LevelDir, solver);
+        var optimal = LevelSolver.solve("SAsoko3_04", IO.LevelDir, new AStar(new DistanceSumCost()));
+
+        Assert.assertTrue(result.getErrorMessageOrEmpty(), result.isOk());
+        Assert.assertFalse(lengths.isEmpty());
+        for (var i = 1; i < lengths.size(); i++) Assert.assertTrue(lengths.get(i) < lengths.get(i - 1));
+        Assert.assertEquals(optimal.get().getMakespan(), result.get().getMakespan());
+        Assert.assertEquals(result.get().getMakespan(), (int) lengths.get(lengths.size() - 1));
+    }
+
+    @Test
+    public void TimeLimit_Should_KeepFirstPlan() {
+        var solver = new AnytimeWAStar(new DistanceSumCost(), 10, 1);
+        var result = LevelSolver.solve("MAPF01", IO.LevelDir, solver);
+        Assert.assertTrue(result.getErrorMessageOrEmpty(), result.isOk());
+    }
+
+    @Test
+    public void SolvedLevel_Should_StopAfterOnePlan() {
+        var level = """
+                    #initial
+                    +++++
+                    +0  +
+                    +++++
+                    #goal
+                    +++++
+                    +0  +
+                    +++++
+                    #end
+                    """;
+        var improvements = new ArrayList<Integer>();
+        var solver = new AnytimeWAStar(new DistanceSumCost(), 10, 60_000);
+        solver.setOnImprovement(solution -> improvements.add(solution.getMakespan()));
+
+        var start = System.currentTimeMillis();
+        var result = solver.solve(getProblem(level, "red:0"));
+        Assert.assertTrue(result.getErrorMessageOrEmpty(), result.isOk());
+        Assert.assertEquals(1, improvements.size());
+        Assert.assertTrue("Should not run until the time limit", System.currentTimeMillis() - start < 10_000);
+    }
+
+    @Test
+    public void InadmissibleCost_Should_StillReachOptimalPlan() {
+        var level = """
+                    #initial
+                    ++++++++
+                    + +  + +
+                    +  +  1+
+                    ++  B+A+
+                    +  +  0+
+                    ++++++++
+                    #goal
+                    ++++++++
+                    + +  +A+
+                    +  +   +
+                    ++ B + +
+                    +  +   +
+                    ++++++++
+                    #end
+                    """;
+        var colors = new String[]{"red: 0, A", "blue: 1, B"};
+        var solver = new AnytimeWAStar(new DistanceSumCost(), AnytimeWAStar.DEFAULT_WEIGHT, 60_000);
+
+        var result = solver.solve(getProblem(level, colors));
+        var optimal = new BFS().solve(getProblem(level, colors));
+
+        Assert.assertTrue(result.getErrorMessageOrEmpty(), result.isOk());
+        Assert.assertEquals(optimal.get().getMakespan(), result.get().getMakespan());
+    }
+}
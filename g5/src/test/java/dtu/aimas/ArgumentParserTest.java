@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static dtu.aimas.TestUtils.assertTypeIs;
 
+import java.nio.file.Path;
+
 import org.junit.Test;
 
 import dtu.aimas.config.Configuration;
@@ -75,4 +77,54 @@ public class ArgumentParserTest {
         var conf = assertParseOk("-bfs", "-dfs");
         assertTrue("Expected DFS solver", conf.getSolver() instanceof DFS);
     }
+
+    @Test
+    public void MemoryBoundedOption_Should_Pass() {
+        var conf = assertParseOk("-membound");
+        assertTypeIs(conf.getSolver().getClass(), SMAStar.class);
+
+        conf = assertParseOk("-membound", "ida", "cost:admissible");
+        assertTypeIs(conf.getSolver().getClass(), IDAStar.class);
+
+        conf = assertParseOk("-membound", "sma", "nodes:5000", "od");
+        assertEquals(5000, ((SMAStar)conf.getSolver()).getMaxNodes());
+    }
+
+    @Test
+    public void InvalidNodeBudget_Should_Fail() {
+        var result = ArgumentParser.parse(new String[]{"-membound", "nodes:many"});
+        assertTrue("Node budget should be an integer", result.isError());
+    }
+
+    @Test
+    public void DistanceCacheOption_Should_Pass() {
+        var conf = assertParseOk("-bfs");
+        assertEquals(null, conf.getDistanceCache());
+
+        conf = assertParseOk("-bfs", "-distcache", "dir:tables");
+        assertEquals(Path.of("tables"), conf.getDistanceCache());
+    }
+
+    @Test
+    public void SpillOption_Should_Pass() {
+        var conf = assertParseOk("-spill");
+        assertTypeIs(conf.getSolver().getClass(), AStar.class);
+
+        conf = assertParseOk("-spill", "greedy", "states:5000", "dir:runs", "cost:goalcount");
+        assertTypeIs(conf.getSolver().getClass(), Greedy.class);
+
+        var result = ArgumentParser.parse(new String[]{"-spill", "states:1"});
+        assertTrue("State count should be at least 2", result.isError());
+    }
+
+    @Test
+    public void AnytimeOption_Should_Pass() {
+        var conf = assertParseOk("-anytime", "w:3.5", "time:2000", "cost:admissible");
+        assertTypeIs(conf.getSolver().getClass(), AnytimeWAStar.class);
+        assertEquals(3.5, ((AnytimeWAStar)conf.getSolver()).getInitialWeight(), 0);
+        assertEquals(2000, ((AnytimeWAStar)conf.getSolver()).getTimeLimitMs());
+
+        var result = ArgumentParser.parse(new String[]{"-anytime", "w:0.5"});
+        assertTrue("Weight should be at least 1", result.isError());
+    }
 }
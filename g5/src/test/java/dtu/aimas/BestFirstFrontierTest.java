@@ -0,0 +1,46 @@
+package dtu.aimas;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.helpers.FixedHeuristic;
+import dtu.aimas.search.solvers.graphsearch.BestFirstFrontier;
+
+public class BestFirstFrontierTest {
+    @Test
+    public void States_Should_ComeOutByF() {
+        var heuristic = new FixedHeuristic();
+        var frontier = new BestFirstFrontier(heuristic, 2);
+        for (var f : List.of(5, 1, 4, 2, 3, 0)) frontier.add(heuristic.state(f));
+
+        for (var f = 0; f <= 5; f++) Assert.assertEquals(f, heuristic.f(frontier.next()));
+        Assert.assertTrue(frontier.isEmpty());
+    }
+
+    @Test
+    public void DecreaseKeyAndRemove_Should_UseStateItself() {
+        var heuristic = new FixedHeuristic();
+        var frontier = new BestFirstFrontier(heuristic);
+        var first = heuristic.state(2);
+        var expensive = heuristic.state(9);
+        var removed = heuristic.state(1);
+        frontier.add(first);
+        frontier.add(expensive);
+        frontier.add(removed);
+        frontier.add(heuristic.state(5));
+
+        var cheap = heuristic.state(0);
+        Assert.assertTrue(frontier.decreaseKey(expensive, cheap));
+        Assert.assertFalse(frontier.contains(expensive));
+        Assert.assertTrue(frontier.contains(cheap));
+        Assert.assertTrue(frontier.remove(removed));
+        Assert.assertFalse(frontier.remove(removed));
+
+        Assert.assertEquals(3, frontier.size());
+        Assert.assertSame(cheap, frontier.next());
+        Assert.assertSame(first, frontier.next());
+        Assert.assertFalse(frontier.decreaseKey(first, heuristic.state(0)));
+    }
+}
@@ -277,15 +277,11 @@ public class BlackboardSolverTest {
                 // both agents go to the right, pushing the box
                 var jointAction = new Action[]{Action.PushEE, Action.PushEE};
 
-                agent0.pos.col += jointAction[0].agentColDelta;
-                agent0.pos.row += jointAction[0].agentRowDelta;
-                box0.pos.col += jointAction[0].boxColDelta;
-                box0.pos.row += jointAction[0].boxRowDelta;
-
-                agent1.pos.col += jointAction[1].agentColDelta;
-                agent1.pos.row += jointAction[1].agentRowDelta;
-                box1.pos.col += jointAction[1].boxColDelta;
-                box1.pos.row += jointAction[1].boxRowDelta;
+                agent0 = moved(agent0, jointAction[0]);
+                box0 = moved(box0, jointAction[0]);
+
+                agent1 = moved(agent1, jointAction[1]);
+                box1 = moved(box1, jointAction[1]);
                 states[1] = new State(
                     states[0],
                     new ArrayList<>(List.of(agent0.clone(), agent1.clone())),
@@ -313,15 +309,11 @@ public class BlackboardSolverTest {
                 // agent0 does nothing, agent1 pushes right
                 var jointAction = new Action[]{Action.NoOp, Action.PushEE};
 
-                agent0.pos.col += jointAction[0].agentColDelta;
-                agent0.pos.row += jointAction[0].agentRowDelta;
-                box0.pos.col += jointAction[0].boxColDelta;
-                box0.pos.row += jointAction[0].boxRowDelta;
+                agent0 = moved(agent0, jointAction[0]);
+                box0 = moved(box0, jointAction[0]);
 
-                agent1.pos.col += jointAction[1].agentColDelta;
-                agent1.pos.row += jointAction[1].agentRowDelta;
-                box1.pos.col += jointAction[1].boxColDelta;
-                box1.pos.row += jointAction[1].boxRowDelta;
+                agent1 = moved(agent1, jointAction[1]);
+                box1 = moved(box1, jointAction[1]);
                 states[1] = new State(
                         states[0],
                         new ArrayList<>(List.of(agent0.clone(), agent1.clone())),
@@ -333,15 +325,11 @@ public class BlackboardSolverTest {
                 // agent0 pushes right, agent1 goes left
                 var jointAction = new Action[]{Action.PushEE, Action.MoveW};
 
-                agent0.pos.col += jointAction[0].agentColDelta;
-                agent0.pos.row += jointAction[0].agentRowDelta;
-                box0.pos.col += jointAction[0].boxColDelta;
-                box0.pos.row += jointAction[0].boxRowDelta;
+                agent0 = moved(agent0, jointAction[0]);
+                box0 = moved(box0, jointAction[0]);
 
-                agent1.pos.col += jointAction[1].agentColDelta;
-                agent1.pos.row += jointAction[1].agentRowDelta;
-                box1.pos.col += jointAction[1].boxColDelta;
-                box1.pos.row += jointAction[1].boxRowDelta;
+                agent1 = moved(agent1, jointAction[1]);
+                box1 = moved(box1, jointAction[1]);
                 states[2] = new State(
                         states[0],
                         new ArrayList<>(List.of(agent0.clone(), agent1.clone())),
@@ -370,12 +358,12 @@ public class BlackboardSolverTest {
 
             // require order of agents
             var expectedAgents = new ArrayList<>(List.of(agent0, agent1, agent2, agent3));
-            Assert.assertEquals(expectedAgents, state.agents);
+            Assert.assertEquals(expectedAgents, state.agents());
 
             // boxes can have any order, but all must be there
-            Assert.assertEquals(4, state.boxes.size());
+            Assert.assertEquals(4, state.boxes().size());
             for (var box : List.of(box0, box1, box2, box3)) {
-                Assert.assertTrue(state.boxes.contains(box));
+                Assert.assertTrue(state.boxes().contains(box));
             }
 
             // Step 0 has no joint action
@@ -403,12 +391,12 @@ public class BlackboardSolverTest {
 
             // require order of agents
             var expectedAgents = new ArrayList<>(List.of(agent0, agent1, agent2, agent3));
-            Assert.assertEquals(expectedAgents, state.agents);
+            Assert.assertEquals(expectedAgents, state.agents());
 
             // boxes can have any order, but all must be there
-            Assert.assertEquals(4, state.boxes.size());
+            Assert.assertEquals(4, state.boxes().size());
             for (var box : List.of(box0, box1, box2, box3)) {
-                Assert.assertTrue(state.boxes.contains(box));
+                Assert.assertTrue(state.boxes().contains(box));
             }
 
             // require order of joint action
@@ -438,12 +426,12 @@ public class BlackboardSolverTest {
 
             // require order of agents
             var expectedAgents = new ArrayList<>(List.of(agent0, agent1, agent2, agent3));
-            Assert.assertEquals(expectedAgents, state.agents);
+            Assert.assertEquals(expectedAgents, state.agents());
 
             // boxes can have any order, but all must be there
-            Assert.assertEquals(4, state.boxes.size());
+            Assert.assertEquals(4, state.boxes().size());
             for (var box : List.of(box0, box1, box2, box3)) {
-                Assert.assertTrue(state.boxes.contains(box));
+                Assert.assertTrue(state.boxes().contains(box));
             }
 
             // require order of joint action
@@ -479,4 +467,14 @@ public class BlackboardSolverTest {
             Assert.assertTrue(result.stream().anyMatch(p -> Arrays.equals(p, permutation)));
         }
     }
+
+    private static Agent moved(Agent agent, Action action) {
+        return new Agent(Position.of(agent.pos.row + action.agentRowDelta, agent.pos.col + action.agentColDelta),
+                agent.color, agent.label);
+    }
+
+    private static Box moved(Box box, Action action) {
+        return new Box(Position.of(box.pos.row + action.boxRowDelta, box.pos.col + action.boxColDelta),
+                box.color, box.label);
+    }
 }
@@ -0,0 +1,156 @@
+package dtu.aimas;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FileHelper;
+import dtu.aimas.helpers.LevelSolver;
+import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.search.BoxDistances;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.heuristics.BoxTransportCost;
+
+public class BoxDistancesTest {
+    private static final int[][] DELTAS = {{-1, 0}, {1, 0}, {0, 1}, {0, -1}};
+
+    private boolean[][] parse(String... rows) {
+        var walls = new boolean[rows.length][rows[0].length()];
+        for (var row = 0; row < rows.length; row++) {
+            for (var col = 0; col < rows[0].length(); col++) walls[row][col] = rows[row].charAt(col) == '+';
+        }
+        return walls;
+    }
+
+    // Search over every box and agent cell pair, with free agent walks, to compare against
+    private int[] bruteForce(boolean[][] walls, int goalRow, int goalCol) {
+        var height = walls.length;
+        var width = walls[0].length;
+        var cells = height * width;
+        var distances = new int[cells * cells];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        var deque = new ArrayDeque<int[]>();
+        var goal = goalRow * width + goalCol;
+        for (var agent = 0; agent < cells; agent++) {
+            if (agent == goal || walls[agent / width][agent % width]) continue;
+            distances[goal * cells + agent] = 0;
+            deque.add(new int[]{goal, agent, 0});
+        }
+        while (!deque.isEmpty()) {
+            var current = deque.poll();
+            int box = current[0], agent = current[1], distance = current[2];
+            if (distance != distances[box * cells + agent]) continue;
+            for (var delta : DELTAS) {
+                var step = neighbor(walls, agent, delta);
+                if (step >= 0 && step != box && distance < distances[box * cells + step]) {
+                    distances[box * cells + step] = distance;
+                    deque.addFirst(new int[]{box, step, distance});
+                }
+                if (!isAdjacent(width, box, agent)) continue;
+                var pushed = neighbor(walls, box, delta);
+                if (pushed >= 0 && pushed != agent && distance + 1 < distances[pushed * cells + box]) {
+                    distances[pushed * cells + box] = distance + 1;
+                    deque.addLast(new int[]{pushed, box, distance + 1});
+                }
+                if (step >= 0 && step != box && distance + 1 < distances[agent * cells + step]) {
+                    distances[agent * cells + step] = distance + 1;
+                    deque.addLast(new int[]{agent, step, distance + 1});
+                }
+            }
+        }
+
+        var result = new int[cells];
+        for (var box = 0; box < cells; box++) {
+            result[box] = box == goal ? 0 : DistanceOracle.UNREACHABLE;
+            for (var agent = 0; agent < cells; agent++) {
+                if (distances[box * cells + agent] != Integer.MAX_VALUE)
+                    result[box] = Math.min(result[box], distances[box * cells + agent]);
+            }
+        }
+        return result;
+    }
+
+    private int neighbor(boolean[][] walls, int cell, int[] delta) {
+        var row = cell / walls[0].length + delta[0];
+        var col = cell % walls[0].length + delta[1];
+        if (row < 0 || row >= walls.length || col < 0 || col >= walls[0].length || walls[row][col]) return -1;
+        return row * walls[0].length + col;
+    }
+
+    private boolean isAdjacent(int width, int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width) == 1;
+    }
+
+    private void assertMatchesBruteForce(boolean[][] walls) {
+        var distances = new BoxDistances(walls);
+        var width = walls[0].length;
+        for (var goal = 0; goal < walls.length * width; goal++) {
+            if (walls[goal / width][goal % width]) continue;
+            var expected = bruteForce(walls, goal / width, goal % width);
+            for (var box = 0; box < expected.length; box++) {
+                if (walls[box / width][box % width]) continue;
+                var actual = distances.distance(Position.cell(box / width, box % width), Position.cell(goal / width, goal % width));
+                Assert.assertEquals("box " + box + " goal " + goal, expected[box], actual);
+            }
+        }
+    }
+
+    @Test
+    public void MatchesSearchOverAgentCells() {
+        assertMatchesBruteForce(parse(
+                "+++++++++",
+                "+   +   +",
+                "+ +   + +",
+                "+   ++ ++",
+                "++ +    +",
+                "+++++++++"));
+        assertMatchesBruteForce(parse(
+                "++++++++",
+                "+      +",
+                "+ ++++++",
+                "+ +  + +",
+                "+   ++ +",
+                "++++++++"));
+    }
+
+    @Test
+    public void BoxesNeedRoomForTheAgent() {
+        var walls = parse(
+                "+++++++",
+                "+   +++",
+                "+++++ +",
+                "+     +",
+                "+++++++");
+        var distances = new BoxDistances(walls);
+        var oracle = new DistanceOracle(walls);
+        var end = Position.cell(1, 1);
+        var middle = Position.cell(1, 2);
+        var otherEnd = Position.cell(1, 3);
+        // the agent pulls the box to the middle, but then has no room to get behind it
+        Assert.assertEquals(1, distances.distance(end, middle));
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, distances.distance(end, otherEnd));
+        Assert.assertEquals(2, oracle.distance(end, otherEnd));
+        // pushed around a corner into a dead end, but never pulled in, as the agent would be stuck there
+        Assert.assertEquals(2, distances.distance(Position.cell(3, 4), Position.cell(2, 5)));
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, distances.distance(Position.cell(3, 1), Position.cell(2, 5)));
+    }
+
+    @Test
+    public void TransportCostSolvesBoxLevels() {
+        var plain = LevelSolver.solve("SAsoko3_04", IO.LevelDir, new AStar(new BoxTransportCost()));
+        Assert.assertTrue(plain.toString(), plain.isOk());
+
+        var problem = FileHelper.loadLevel("SAsoko3_04", IO.LevelDir, CourseLevelParser.Instance).get();
+        for (var goal : problem.boxGoals) {
+            for (var box : problem.boxes) {
+                var walk = problem.admissibleDist(box.pos.cell(), goal.destination.cell());
+                Assert.assertTrue(problem.boxDist(box.pos.cell(), goal.destination.cell()) >= walk);
+            }
+        }
+    }
+}
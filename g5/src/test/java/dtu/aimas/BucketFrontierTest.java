@@ -0,0 +1,77 @@
+package dtu.aimas;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.helpers.FixedHeuristic;
+import dtu.aimas.search.solvers.graphsearch.BucketFrontier;
+
+public class BucketFrontierTest {
+    @Test
+    public void States_Should_ComeOutByFThenH() {
+        var heuristic = new FixedHeuristic();
+        var states = List.of(
+            heuristic.state(-1, 0),
+            heuristic.state(3, 0),
+            heuristic.state(3, 2),
+            heuristic.state(4, 4),
+            heuristic.state(5, 1),
+            heuristic.state(100000, 0),
+            heuristic.state(Integer.MAX_VALUE, 0)
+        );
+        var frontier = new BucketFrontier(heuristic);
+        for (var i : List.of(4, 6, 2, 0, 5, 1, 3)) frontier.add(states.get(i));
+
+        Assert.assertEquals(states.size(), frontier.size());
+        for (var state : states) {
+            Assert.assertTrue(frontier.contains(state));
+            Assert.assertSame(state, frontier.next());
+        }
+        Assert.assertTrue(frontier.isEmpty());
+        Assert.assertNull(frontier.next());
+    }
+
+    @Test
+    public void LowerStateAddedLater_Should_ComeFirst() {
+        var heuristic = new FixedHeuristic();
+        var first = heuristic.state(6, 3);
+        var second = heuristic.state(6, 3);
+        var lower = heuristic.state(2, 2);
+        var frontier = new BucketFrontier(heuristic);
+
+        frontier.add(heuristic.state(7, 0));
+        frontier.add(first);
+        frontier.add(second);
+        Assert.assertSame(second, frontier.next());
+        Assert.assertFalse(frontier.contains(second));
+
+        frontier.add(lower);
+        Assert.assertSame(lower, frontier.next());
+        Assert.assertSame(first, frontier.next());
+        Assert.assertEquals(1, frontier.size());
+    }
+
+    @Test
+    public void DecreaseKey_Should_ReplaceBucketedState() {
+        var heuristic = new FixedHeuristic();
+        var frontier = new BucketFrontier(heuristic);
+        var expensive = heuristic.state(8, 3);
+        var other = heuristic.state(8, 3);
+        var unreachable = heuristic.state(Integer.MAX_VALUE, 0);
+        frontier.add(expensive);
+        frontier.add(other);
+        frontier.add(unreachable);
+
+        var cheap = heuristic.state(5, 3);
+        Assert.assertTrue(frontier.decreaseKey(expensive, cheap));
+        Assert.assertFalse(frontier.contains(expensive));
+        Assert.assertFalse(frontier.decreaseKey(unreachable, heuristic.state(4, 0)));
+
+        Assert.assertEquals(3, frontier.size());
+        Assert.assertSame(cheap, frontier.next());
+        Assert.assertSame(other, frontier.next());
+        Assert.assertSame(unreachable, frontier.next());
+    }
+}
@@ -0,0 +1,120 @@
+package dtu.aimas;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FileHelper;
+import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.CorridorGraph;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.StateSolution;
+import dtu.aimas.search.solvers.SolutionChecker;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.graphsearch.BFS;
+import dtu.aimas.search.solvers.heuristics.CorridorBoundCost;
+import dtu.aimas.search.solvers.heuristics.GoalCount;
+
+public class CorridorGraphTest {
+    // Two 3x3 rooms joined by a corridor of four cells, with a dead end corridor of two cells below the right room
+    private boolean[][] twoRooms() {
+        var walls = new boolean[7][11];
+        for (var row = 0; row < 7; row++) {
+            for (var col = 0; col < 11; col++) {
+                var leftRoom = row >= 1 && row <= 3 && col >= 0 && col <= 2;
+                var rightRoom = row >= 1 && row <= 3 && col >= 8 && col <= 10;
+                var corridor = row == 2 && col >= 3 && col <= 6 || row == 2 && col == 7;
+                var deadEnd = col == 9 && (row == 4 || row == 5);
+                walls[row][col] = !(leftRoom || rightRoom || corridor || deadEnd);
+            }
+        }
+        return walls;
+    }
+
+    // Ring of corridor cells around a single wall, without any room
+    private boolean[][] ring() {
+        var walls = new boolean[5][5];
+        for (var row = 0; row < 5; row++) {
+            for (var col = 0; col < 5; col++) {
+                walls[row][col] = row == 0 || col == 0 || row == 4 || col == 4 || row == 2 && col == 2;
+            }
+        }
+        return walls;
+    }
+
+    private Problem load(String levelName) {
+        var problem = FileHelper.loadLevel(levelName, IO.LevelDir, CourseLevelParser.Instance);
+        Assert.assertTrue(problem.isOk());
+        return problem.get();
+    }
+
+    @Test
+    public void CorridorsBecomeChainsBetweenRooms() {
+        var graph = new CorridorGraph(twoRooms());
+        var corridor = graph.chainAt(Position.cell(2, 5));
+        var deadEnd = graph.chainAt(Position.cell(5, 9));
+
+        Assert.assertEquals(2, graph.roomCount());
+        Assert.assertNull(graph.chainAt(Position.cell(2, 1)));
+        Assert.assertEquals(5, corridor.length());
+        Assert.assertNotEquals(corridor.rooms()[0], corridor.rooms()[1]);
+        Assert.assertEquals(2, deadEnd.length());
+        Assert.assertTrue(deadEnd.rooms()[0] == CorridorGraph.NONE ^ deadEnd.rooms()[1] == CorridorGraph.NONE);
+        var left = graph.roomAt(Position.cell(2, 1));
+        var right = graph.roomAt(Position.cell(2, 9));
+        Assert.assertEquals(6, graph.roomDistance(left, right));
+    }
+
+    @Test
+    public void LowerBoundsAreAdmissible() {
+        for (var walls : new boolean[][][]{twoRooms(), ring(), load("SAsimple2").walls, load("MAPF02").walls}) {
+            var graph = new CorridorGraph(walls);
+            var oracle = new DistanceOracle(walls);
+            var cells = walls.length * walls[0].length;
+            for (var from = 0; from < cells; from++) {
+                for (var to = 0; to < cells; to++) {
+                    var fromCell = Position.cell(from / walls[0].length, from % walls[0].length);
+                    var toCell = Position.cell(to / walls[0].length, to % walls[0].length);
+                    var exact = oracle.distance(fromCell, toCell);
+                    var bound = graph.lowerBound(fromCell, toCell);
+                    Assert.assertTrue(bound <= exact);
+                    if (exact == DistanceOracle.UNREACHABLE) continue;
+                    Assert.assertNotEquals(DistanceOracle.UNREACHABLE, bound);
+                }
+            }
+        }
+        // the corridor is crossed entirely, the rooms are free to cross
+        var graph = new CorridorGraph(twoRooms());
+        Assert.assertEquals(6 + 2, graph.lowerBound(Position.cell(1, 0), Position.cell(1, 8)));
+        Assert.assertEquals(1, new CorridorGraph(ring()).lowerBound(Position.cell(1, 2), Position.cell(1, 3)));
+    }
+
+    @Test
+    public void MacroMovesKeepOptimalPlans() {
+        var problem = load("SAsimple2");
+        var plain = new AStar(new GoalCount());
+        var macro = new AStar(new GoalCount());
+        macro.setMacroMoves(true);
+
+        var expected = plain.solve(problem);
+        var actual = macro.solve(problem);
+        Assert.assertTrue(actual.toString(), actual.isOk());
+        Assert.assertEquals(expected.get().getMakespan(), actual.get().getMakespan());
+        var space = ProblemParser.parse(problem).get();
+        Assert.assertTrue(SolutionChecker.validSolution((StateSolution) actual.get(), space));
+    }
+
+    @Test
+    public void CorridorBoundCostKeepsOptimalPlans() {
+        for (var levelName : new String[]{"SAsimple2", "MAPF02"}) {
+            var problem = load(levelName);
+            var expected = new BFS().solve(problem);
+            var actual = new AStar(new CorridorBoundCost()).solve(problem);
+            Assert.assertTrue(actual.toString(), actual.isOk());
+            Assert.assertEquals(expected.get().getMakespan(), actual.get().getMakespan());
+        }
+    }
+}
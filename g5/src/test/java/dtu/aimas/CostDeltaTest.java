@@ -0,0 +1,82 @@
+package dtu.aimas;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FileHelper;
+import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.solvers.graphsearch.SuccessorGenerator;
+import dtu.aimas.search.solvers.heuristics.BoxTransportCost;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+import dtu.aimas.search.solvers.heuristics.GuidedDistanceSumCost;
+import dtu.aimas.search.solvers.heuristics.MAAdmissibleCost;
+import dtu.aimas.search.solvers.heuristics.SingleGoalDistanceCost;
+
+public class CostDeltaTest {
+    // Follows random walks through the level, checking every child updated from its parent against the full cost
+    private void assertDeltaMatchesFullCost(String levelName, Cost cost) {
+        var space = FileHelper.loadLevel(levelName, IO.LevelDir, CourseLevelParser.Instance)
+                .flatMap(ProblemParser::parse)
+                .get();
+        var successors = new SuccessorGenerator(space, new Random(5));
+
+        for (var walk = 0; walk < 20; walk++) {
+            var state = space.initialState();
+            var stateCost = cost.calculate(state, space);
+            for (var step = 0; step < 50; step++) {
+                var children = successors.expand(state);
+                if (children.isEmpty()) break;
+                for (var child : children) {
+                    Assert.assertEquals(cost.calculate(child, space), cost.calculate(child, state, stateCost, space));
+                }
+                state = children.get(0);
+                stateCost = cost.calculate(state, space);
+            }
+        }
+    }
+
+    @Test
+    public void DistanceSumCost_MAsimple2() {
+        assertDeltaMatchesFullCost("MAsimple2", new DistanceSumCost());
+    }
+
+    @Test
+    public void DistanceSumCost_SAsoko3_04() {
+        assertDeltaMatchesFullCost("SAsoko3_04", new DistanceSumCost());
+    }
+
+    @Test
+    public void GuidedDistanceSumCost_MAsimple2() {
+        assertDeltaMatchesFullCost("MAsimple2", new GuidedDistanceSumCost());
+    }
+
+    @Test
+    public void GuidedDistanceSumCost_SAsoko3_04() {
+        assertDeltaMatchesFullCost("SAsoko3_04", new GuidedDistanceSumCost());
+    }
+
+    @Test
+    public void SingleGoalDistanceCost_MAsimple2() {
+        assertDeltaMatchesFullCost("MAsimple2", new SingleGoalDistanceCost());
+    }
+
+    @Test
+    public void SingleGoalDistanceCost_SAsoko3_04() {
+        assertDeltaMatchesFullCost("SAsoko3_04", new SingleGoalDistanceCost());
+    }
+
+    @Test
+    public void BoxTransportCost_SAsoko3_04() {
+        assertDeltaMatchesFullCost("SAsoko3_04", new BoxTransportCost());
+    }
+
+    @Test
+    public void MAAdmissibleCost_FallsBackToFullCost() {
+        assertDeltaMatchesFullCost("MAsimple2", new MAAdmissibleCost());
+    }
+}
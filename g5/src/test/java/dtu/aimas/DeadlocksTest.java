@@ -0,0 +1,78 @@
+package dtu.aimas;
+
+import static dtu.aimas.helpers.LevelHelper.getProblem;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.heuristics.GoalCount;
+
+public class DeadlocksTest {
+    @Test
+    public void BoxOnDeadSquare_Should_FailBeforeSearching() {
+        var level = """
+                    #initial
+                    ++++++++
+                    + A+0  +
+                    ++++++++
+                    #goal
+                    ++++++++
+                    +  +  A+
+                    ++++++++
+                    #end
+                    """;
+        var problem = getProblem(level, "red:0,A");
+
+        var pruned = new AStar(new GoalCount()).solve(problem);
+        Assert.assertTrue(pruned.isError());
+        Assert.assertTrue(pruned.getErrorMessageOrEmpty().contains("deadlocked"));
+
+        var searched = new AStar(new GoalCount());
+        searched.setDeadlockPruning(false);
+        var exhausted = searched.solve(problem);
+        Assert.assertTrue(exhausted.isError());
+        Assert.assertFalse(exhausted.getErrorMessageOrEmpty().contains("deadlocked"));
+    }
+
+    @Test
+    public void FrozenBoxOnOtherGoal_Should_FailBeforeSearching() {
+        var level = """
+                    #initial
+                    ++++++
+                    +0A+B+
+                    ++++++
+                    #goal
+                    ++++++
+                    +  +A+
+                    ++++++
+                    #end
+                    """;
+        var problem = getProblem(level, "red:0,A,B");
+
+        var result = new AStar(new GoalCount()).solve(problem);
+        Assert.assertTrue(result.isError());
+        Assert.assertTrue(result.getErrorMessageOrEmpty().contains("deadlocked"));
+    }
+
+    @Test
+    public void ExtraBoxesOnDeadSquares_Should_NotStopTheSearch() {
+        var level = """
+                    #initial
+                    ++++++++++
+                    +A+ A+0A +
+                    ++++++++++
+                    #goal
+                    ++++++++++
+                    + +  +  A+
+                    ++++++++++
+                    #end
+                    """;
+        var problem = getProblem(level, "red:0,A");
+
+        var result = new AStar(new GoalCount()).solve(problem);
+        Assert.assertTrue(result.getErrorMessageOrEmpty(), result.isOk());
+        // the initial state and the single push
+        Assert.assertEquals(2, result.get().getMakespan());
+    }
+}
@@ -0,0 +1,162 @@
+package dtu.aimas;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Color;
+import dtu.aimas.common.Position;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.Problem;
+import dtu.aimas.search.solvers.Constraint;
+import dtu.aimas.search.solvers.conflictbasedsearch.ConstrainedProblem;
+import dtu.aimas.search.solvers.safeinterval.SafeProblem;
+
+public class DistanceOracleTest {
+    private boolean[][] spiralWalls(int height, int width) {
+        var walls = new boolean[height][width];
+        for (var row = 1; row < height - 1; row += 2) {
+            for (var col = 0; col < width; col++) walls[row][col] = true;
+            // alternate the gap between both sides
+            walls[row][(row / 2) % 2 == 0 ? width - 1 : 0] = false;
+        }
+        return walls;
+    }
+
+    @Test
+    public void LazyFieldsMatchAllPairs() {
+        var walls = spiralWalls(9, 12);
+        var lazy = new DistanceOracle(walls, 3);
+        var eager = new DistanceOracle(walls).precomputeAll();
+
+        for (var fromRow = 0; fromRow < walls.length; fromRow++) {
+            for (var fromCol = 0; fromCol < walls[0].length; fromCol++) {
+                for (var toRow = 0; toRow < walls.length; toRow++) {
+                    for (var toCol = 0; toCol < walls[0].length; toCol++) {
+                        var from = Position.cell(fromRow, fromCol);
+                        var to = Position.cell(toRow, toCol);
+                        Assert.assertEquals(eager.distance(from, to), lazy.distance(from, to));
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(3, lazy.cachedFields());
+        Assert.assertEquals(9 * 12, eager.cachedFields());
+    }
+
+    @Test
+    public void WallsAreUnreachable() {
+        var walls = spiralWalls(5, 6);
+        var oracle = new DistanceOracle(walls);
+        var wall = Position.cell(1, 0);
+        var free = Position.cell(0, 0);
+
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(wall, free));
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(free, wall));
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, oracle.distance(wall, wall));
+        // around the first wall through its gap in the last column
+        Assert.assertEquals(5 + 2 + 5, oracle.distance(free, Position.cell(2, 0)));
+    }
+
+    @Test
+    public void FieldsAreOnlyComputedPerQueriedTarget() {
+        var walls = spiralWalls(7, 7);
+        var oracle = new DistanceOracle(walls);
+        var goal = Position.cell(6, 6);
+        for (var col = 0; col < 7; col++) oracle.distance(Position.cell(0, col), goal);
+
+        Assert.assertEquals(1, oracle.getComputedFields());
+    }
+
+    @Test
+    public void RecentlyUsedFieldsSurviveEviction() {
+        var walls = new boolean[4][4];
+        var oracle = new DistanceOracle(walls, 2);
+        var a = Position.cell(0, 0);
+        var b = Position.cell(3, 3);
+        var c = Position.cell(1, 2);
+
+        oracle.distance(a, a);
+        oracle.distance(a, b);
+        oracle.distance(a, a);
+        oracle.distance(a, c);
+        // a was used after b, so both a and c are still cached
+        var computed = oracle.getComputedFields();
+        oracle.distance(b, a);
+        oracle.distance(b, c);
+        Assert.assertEquals(computed, oracle.getComputedFields());
+    }
+
+    @Test
+    public void DerivedProblemsShareDistances() {
+        var walls = spiralWalls(5, 6);
+        var agent = new Agent(new Position(0, 0), Color.Red, '0');
+        var problem = new Problem(List.of(agent), List.of(), walls, new char[5][6]);
+        var distances = problem.getDistances();
+
+        Assert.assertSame(distances, SafeProblem.from(problem).getDistances());
+        Assert.assertSame(distances, ConstrainedProblem.from(problem, Constraint.empty()).getDistances());
+        Assert.assertSame(distances, problem.subProblemFor(agent).getDistances());
+        Assert.assertSame(distances, problem.copyWith(List.of(agent), List.of(), new char[5][6]).getDistances());
+
+        var sameWalls = spiralWalls(5, 6);
+        Assert.assertSame(distances, problem.copyWith(List.of(agent), List.of(), new char[5][6], sameWalls).getDistances());
+
+        var moreWalls = spiralWalls(5, 6);
+        moreWalls[0][3] = true;
+        var walled = SafeProblem.from(problem).copyWith(List.of(agent), List.of(), new char[5][6], moreWalls);
+        Assert.assertNotSame(distances, walled.getDistances());
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, walled.admissibleDist(Position.cell(0, 0), Position.cell(0, 5)));
+    }
+
+    @Test
+    public void AddedWallsRepairCachedFields() {
+        var random = new Random(7);
+        var walls = spiralWalls(9, 12);
+        var oracle = new DistanceOracle(walls).precomputeAll();
+
+        for (var step = 0; step < 20; step++) {
+            walls = walls.clone();
+            var row = random.nextInt(9);
+            walls[row] = walls[row].clone();
+            walls[row][random.nextInt(12)] = true;
+
+            oracle = oracle.withWalls(walls);
+            var fresh = new DistanceOracle(walls);
+            for (var from = 0; from < 9 * 12; from++) {
+                for (var to = 0; to < 9 * 12; to++) {
+                    var fromCell = Position.cell(from / 12, from % 12);
+                    var toCell = Position.cell(to / 12, to % 12);
+                    Assert.assertEquals(fresh.distance(fromCell, toCell), oracle.distance(fromCell, toCell));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void AddedWallsAvoidRecomputingFields() {
+        var walls = new boolean[5][5];
+        var oracle = new DistanceOracle(walls);
+        var corner = Position.cell(0, 0);
+        var opposite = Position.cell(4, 4);
+        Assert.assertEquals(8, oracle.distance(corner, opposite));
+
+        var walled = new boolean[5][5];
+        walled[1][1] = true;
+        walled[1][0] = true;
+        walled[0][1] = true;
+        var repaired = oracle.withWalls(walled);
+        Assert.assertSame(oracle, oracle.withWalls(new boolean[5][5]));
+        Assert.assertEquals(DistanceOracle.UNREACHABLE, repaired.distance(corner, opposite));
+        Assert.assertEquals(1, repaired.getRepairedFields());
+        Assert.assertEquals(0, repaired.getComputedFields());
+
+        // removing a wall again cannot be repaired, the new oracle computes its fields when queried
+        var reopened = repaired.withWalls(walls);
+        Assert.assertEquals(8, reopened.distance(corner, opposite));
+        Assert.assertEquals(1, reopened.getComputedFields());
+    }
+}
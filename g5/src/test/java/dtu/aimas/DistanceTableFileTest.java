@@ -0,0 +1,110 @@
+package dtu.aimas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.search.DistanceOracle;
+import dtu.aimas.search.DistanceTableFile;
+
+public class DistanceTableFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private boolean[][] roomWalls() {
+        var walls = new boolean[7][9];
+        for (var col = 0; col < 9; col++) walls[3][col] = col != 4;
+        walls[5][2] = true;
+        return walls;
+    }
+
+    private void assertSameDistances(DistanceOracle expected, DistanceOracle actual, boolean[][] walls) {
+        var cells = walls.length * walls[0].length;
+        for (var from = 0; from < cells; from++) {
+            for (var to = 0; to < cells; to++) {
+                var fromCell = Position.cell(from / walls[0].length, from % walls[0].length);
+                var toCell = Position.cell(to / walls[0].length, to % walls[0].length);
+                Assert.assertEquals(expected.distance(fromCell, toCell), actual.distance(fromCell, toCell));
+            }
+        }
+    }
+
+    @Test
+    public void StoredTableIsMappedOnTheNextRun() {
+        var directory = folder.getRoot().toPath();
+        var walls = roomWalls();
+        Assert.assertTrue(DistanceTableFile.load(directory, walls).isError());
+
+        var computed = DistanceTableFile.loadOrCompute(directory, walls);
+        Assert.assertTrue(Files.isRegularFile(DistanceTableFile.pathFor(directory, walls)));
+
+        var loaded = DistanceTableFile.load(directory, walls);
+        Assert.assertTrue(loaded.isOk());
+        Assert.assertEquals(0, loaded.get().getComputedFields());
+        assertSameDistances(new DistanceOracle(walls), computed, walls);
+        assertSameDistances(new DistanceOracle(walls), loaded.get(), walls);
+    }
+
+    @Test
+    public void OtherWallsUseOtherTables() {
+        var directory = folder.getRoot().toPath();
+        var walls = roomWalls();
+        var other = roomWalls();
+        other[3][4] = true;
+        DistanceTableFile.loadOrCompute(directory, walls);
+
+        Assert.assertNotEquals(DistanceTableFile.pathFor(directory, walls), DistanceTableFile.pathFor(directory, other));
+        Assert.assertTrue(DistanceTableFile.load(directory, other).isError());
+        Assert.assertEquals(DistanceOracle.UNREACHABLE,
+                DistanceTableFile.loadOrCompute(directory, other).distance(Position.cell(0, 0), Position.cell(6, 0)));
+    }
+
+    @Test
+    public void CorruptTableIsComputedAgain() throws IOException {
+        var directory = folder.getRoot().toPath();
+        var walls = roomWalls();
+        var path = DistanceTableFile.store(directory, walls).get();
+
+        // a truncated file, e.g. from a crashed writer
+        try (var channel = Files.newByteChannel(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        Assert.assertTrue(DistanceTableFile.load(directory, walls).isError());
+        assertSameDistances(new DistanceOracle(walls), DistanceTableFile.loadOrCompute(directory, walls), walls);
+
+        // a file of the right size written for other walls
+        var bytes = Files.readAllBytes(path);
+        bytes[30] ^= 1;
+        Files.write(path, bytes);
+        Assert.assertTrue(DistanceTableFile.load(directory, walls).isError());
+        Assert.assertTrue(DistanceTableFile.loadOrCompute(directory, walls).distance(Position.cell(0, 0), Position.cell(6, 8)) < 20);
+        Assert.assertTrue(DistanceTableFile.load(directory, walls).isOk());
+    }
+
+    @Test
+    public void DerivedFromTable_Should_KeepFieldsOfEveryTarget() {
+        var directory = folder.getRoot().toPath();
+        var walls = roomWalls();
+        var table = DistanceTableFile.loadOrCompute(directory, walls);
+        var walled = roomWalls();
+        walled[1][1] = true;
+        var derived = table.withWalls(walled);
+
+        // alternating targets must not evict each other's field
+        var from = Position.cell(0, 0);
+        var first = Position.cell(6, 8);
+        var second = Position.cell(6, 0);
+        for (var i = 0; i < 100; i++) {
+            derived.distance(from, first);
+            derived.distance(from, second);
+        }
+        Assert.assertEquals(2, derived.getComputedFields());
+        assertSameDistances(new DistanceOracle(walled), derived, walled);
+    }
+}
@@ -0,0 +1,62 @@
+package dtu.aimas;
+
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FixedHeuristic;
+import dtu.aimas.helpers.LevelSolver;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.graphsearch.ExternalFrontier;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+
+public class ExternalFrontierTest {
+    @Test
+    public void OverflowingStates_Should_SpillAndComeBackInOrder() throws Exception {
+        var directory = Files.createTempDirectory("spill");
+        var heuristic = new FixedHeuristic();
+        var frontier = new ExternalFrontier(heuristic, 8, directory);
+        var random = new Random(5);
+        for (var i = 0; i < 100; i++) frontier.add(heuristic.state(random.nextInt(20), random.nextInt(5)));
+
+        Assert.assertTrue("States beyond the head should be on disk", frontier.spilledCount() > 0);
+        Assert.assertEquals(100, frontier.size());
+
+        var previousF = Integer.MIN_VALUE;
+        var previousH = Integer.MIN_VALUE;
+        for (var i = 0; i < 100; i++) {
+            var state = frontier.next();
+            var f = heuristic.f(state);
+            var h = heuristic.h(state);
+            Assert.assertTrue("States should come out by f, then h", f > previousF || f == previousF && h >= previousH);
+            previousF = f;
+            previousH = h;
+        }
+        Assert.assertTrue(frontier.isEmpty());
+        Assert.assertEquals(0, frontier.spilledCount());
+        Files.delete(directory);
+    }
+
+    @Test
+    public void SpilledSearch_Should_FindOptimalSolution() throws Exception {
+        var directory = Files.createTempDirectory("spill");
+        var spilling = new AStar(new DistanceSumCost());
+        spilling.setSpillThreshold(16);
+        spilling.setSpillDirectory(directory);
+
+        for (var level : new String[]{ "SAsoko3_04", "MAPF01" }) {
+            var expected = LevelSolver.solve(level, IO.LevelDir, new AStar(new DistanceSumCost()));
+            var spilled = LevelSolver.solve(level, IO.LevelDir, spilling);
+            Assert.assertTrue(spilled.getErrorMessageOrEmpty(), spilled.isOk());
+            Assert.assertEquals(expected.get().getMakespan(), spilled.get().getMakespan());
+        }
+
+        try (var runs = Files.list(directory)) {
+            Assert.assertEquals("Spilled runs should not outlive their mapping", 0, runs.count());
+        }
+        Files.delete(directory);
+    }
+}
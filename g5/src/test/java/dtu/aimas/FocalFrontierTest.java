@@ -0,0 +1,33 @@
+package dtu.aimas;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.helpers.FixedHeuristic;
+import dtu.aimas.search.solvers.graphsearch.FocalFrontier;
+
+public class FocalFrontierTest {
+    @Test
+    public void StatesBeyondBound_Should_WaitUntilAdmitted() {
+        var heuristic = new FixedHeuristic(1.5);
+        var root = heuristic.state(4);
+        var near = heuristic.state(6);
+        var far = heuristic.state(9);
+        var frontier = new FocalFrontier(heuristic, 16);
+
+        frontier.add(root);
+        frontier.updateFMin();
+        Assert.assertSame(root, frontier.next());
+
+        frontier.add(far);
+        frontier.add(near);
+        Assert.assertEquals(2, frontier.size());
+        Assert.assertTrue(frontier.contains(far));
+        frontier.fillFocal();
+
+        // fMin is now 6, admitting f up to 9
+        Assert.assertSame(near, frontier.next());
+        Assert.assertSame(far, frontier.next());
+        Assert.assertTrue(frontier.isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package dtu.aimas;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FileHelper;
+import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.GridTopology;
+
+public class GridTopologyTest {
+    // A single free row of three cells
+    private boolean[][] corridor() {
+        var walls = new boolean[3][5];
+        for (var row = 0; row < 3; row++) {
+            for (var col = 0; col < 5; col++) walls[row][col] = row != 1 || col == 0 || col == 4;
+        }
+        return walls;
+    }
+
+    @Test
+    public void PossibleActionsKeepAgentAndBoxOffWalls() {
+        var topology = new GridTopology(corridor());
+        var middle = Position.cell(1, 2);
+        var end = Position.cell(1, 1);
+
+        // pushing from the middle would move the box into a wall, pulling from the end would take it out of one
+        Assert.assertEquals(List.of(Action.MoveE, Action.MoveW, Action.PullWW, Action.PullEE, Action.NoOp),
+                List.of(topology.possibleActions(middle)));
+        Assert.assertEquals(List.of(Action.MoveE, Action.PushEE, Action.NoOp), List.of(topology.possibleActions(end)));
+        Assert.assertEquals(0, topology.possibleActions(Position.cell(0, 0)).length);
+    }
+
+    @Test
+    public void TargetsFollowActionDeltas() {
+        var walls = FileHelper.loadLevel("SAsoko3_04", IO.LevelDir, CourseLevelParser.Instance).get().walls;
+        var topology = new GridTopology(walls);
+        for (var index = 0; index < topology.cellCount(); index++) {
+            var cell = topology.cell(index);
+            Assert.assertEquals(index, topology.index(cell));
+            var row = Position.rowOf(cell);
+            var col = Position.colOf(cell);
+            Assert.assertEquals(walls[row][col], topology.isWall(cell));
+            if (walls[row][col]) continue;
+
+            for (var action : Action.values()) {
+                var agentTarget = Position.cell(row + action.agentRowDelta, col + action.agentColDelta);
+                Assert.assertEquals(agentTarget, topology.agentTarget(cell, action));
+                var possible = List.of(topology.possibleActions(cell)).contains(action);
+                switch (action.type) {
+                    case NoOp -> Assert.assertTrue(possible);
+                    case Move -> Assert.assertEquals(!topology.isWall(agentTarget), possible);
+                    case Push -> {
+                        var boxTarget = Position.cell(Position.rowOf(agentTarget) + action.boxRowDelta,
+                                Position.colOf(agentTarget) + action.boxColDelta);
+                        Assert.assertEquals(agentTarget, topology.boxSource(cell, action));
+                        Assert.assertEquals(boxTarget, topology.boxTarget(cell, action));
+                        Assert.assertEquals(!topology.isWall(agentTarget) && !topology.isWall(boxTarget), possible);
+                    }
+                    case Pull -> {
+                        var boxSource = Position.cell(row - action.boxRowDelta, col - action.boxColDelta);
+                        Assert.assertEquals(boxSource, topology.boxSource(cell, action));
+                        Assert.assertEquals(cell, topology.boxTarget(cell, action));
+                        Assert.assertEquals(!topology.isWall(agentTarget) && !topology.isWall(boxSource), possible);
+                    }
+                }
+            }
+        }
+    }
+}
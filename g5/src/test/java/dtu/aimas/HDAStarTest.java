@@ -0,0 +1,35 @@
+package dtu.aimas;
+
+import static dtu.aimas.helpers.LevelSolver.assertSameMakespanAsAStar;
+
+import org.junit.Test;
+
+import dtu.aimas.search.solvers.graphsearch.HDAStar;
+import dtu.aimas.search.solvers.heuristics.CorridorBoundCost;
+
+public class HDAStarTest {
+    private void assertOptimal(String levelName, int workers) {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar(levelName, cost, new HDAStar(cost, workers));
+    }
+
+    @Test
+    public void SingleWorker_MAPF00() {
+        assertOptimal("MAPF00", 1);
+    }
+
+    @Test
+    public void FourWorkers_MAPF01() {
+        assertOptimal("MAPF01", 4);
+    }
+
+    @Test
+    public void FourWorkers_SAsimple2() {
+        assertOptimal("SAsimple2", 4);
+    }
+
+    @Test
+    public void FourWorkers_MAPF02() {
+        assertOptimal("MAPF02", 4);
+    }
+}
@@ -0,0 +1,101 @@
+package dtu.aimas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Box;
+import dtu.aimas.common.Color;
+import dtu.aimas.common.Position;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.graphsearch.StateSpace;
+import dtu.aimas.search.solvers.heuristics.AStarHeuristic;
+import dtu.aimas.search.solvers.heuristics.Cost;
+import dtu.aimas.search.solvers.heuristics.HeuristicCache;
+
+public class HeuristicTest {
+    private static class CountingCost implements Cost {
+        int calls = 0;
+        public int calculate(State state, StateSpace space) {
+            calls++;
+            return state.agentCell(0) == Position.cell(1, 1) ? 5 : 3;
+        }
+    }
+
+    private State initial() {
+        var agents = new ArrayList<>(List.of(new Agent(new Position(1, 1), Color.Red, '0')));
+        var boxes = new ArrayList<Box>();
+        return new State(agents, boxes);
+    }
+
+    private State move(State parent, int row, int col) {
+        var agents = new ArrayList<>(List.of(new Agent(new Position(row, col), Color.Red, '0')));
+        return new State(parent, agents, parent.boxes(), new Action[]{Action.MoveE});
+    }
+
+    @Test
+    public void ValuesAreStoredInTheState() {
+        var cost = new CountingCost();
+        var heuristic = new AStarHeuristic(cost);
+        var root = initial();
+        var child = move(root, 1, 2);
+
+        Assert.assertEquals(5, heuristic.f(root));
+        Assert.assertEquals(4, heuristic.f(child));
+        Assert.assertEquals(3, heuristic.h(child));
+        Assert.assertTrue(heuristic.compare(child, root) < 0);
+        Assert.assertEquals("Each state should be evaluated once", 2, cost.calls);
+    }
+
+    @Test
+    public void ResetInvalidatesStoredValues() {
+        var cost = new CountingCost();
+        var heuristic = new AStarHeuristic(cost);
+        var root = initial();
+
+        heuristic.f(root);
+        heuristic.reset();
+        heuristic.f(root);
+        Assert.assertEquals(2, cost.calls);
+    }
+
+    @Test
+    public void CacheSharesValuesBetweenEqualStates() {
+        var cost = new CountingCost();
+        var heuristic = new AStarHeuristic(cost);
+        var cache = new HeuristicCache(16);
+        heuristic.setCache(cache);
+        var root = initial();
+
+        heuristic.f(move(root, 1, 2));
+        heuristic.f(move(root, 1, 2));
+        Assert.assertEquals(1, cost.calls);
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(0.5, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void CacheEvictsLeastRecentlyUsed() {
+        var cache = new HeuristicCache(2);
+        var root = initial();
+        var a = move(root, 1, 2);
+        var b = move(root, 1, 3);
+        var c = move(root, 1, 4);
+
+        cache.computeIfAbsent(a, s -> 1);
+        cache.computeIfAbsent(b, s -> 2);
+        cache.computeIfAbsent(a, s -> 1);
+        cache.computeIfAbsent(c, s -> 3);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        // b was the least recently used, so it is computed again
+        Assert.assertEquals(20, cache.computeIfAbsent(b, s -> 20));
+        Assert.assertEquals(3, cache.computeIfAbsent(c, s -> 30));
+    }
+}
@@ -104,6 +104,27 @@ public class LevelSolvingTest {
         LevelSolver.testMap("MAPF02", new AStar(new MAAdmissibleCost()));
     }
 
+    @Test
+    public void TestMAPF02_AStar_DistanceCost_OperatorDecomposition() {
+        var solver = new AStar(new DistanceSumCost());
+        solver.setOperatorDecomposition(true);
+        LevelSolver.testMap("MAPF02", solver);
+    }
+
+    @Test
+    public void TestMAPF03_AStar_DistanceCost_OperatorDecomposition() {
+        var solver = new AStar(new DistanceSumCost());
+        solver.setOperatorDecomposition(true);
+        LevelSolver.testMap("MAPF03", solver, 10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void TestMAPF02_AStar_DistanceCost_HeapFrontier() {
+        var solver = new AStar(new DistanceSumCost());
+        solver.setHeapFrontier(true);
+        LevelSolver.testMap("MAPF02", solver);
+    }
+
     @Test
     public void TestMAsimple4_AStar_DistanceCost() {
         LevelSolver.testMap("MAsimple4", new AStar(new DistanceSumCost()));
@@ -56,8 +56,9 @@ public class MACostTest {
         };
 
         for(var test : tests) {
-            agents[0].pos = test[0];
-            boxes[0] = new Box(test[1], Color.Blue, 'A'); //Box.pos is final, so this is necessary
+            // positions are final, so the agent and box are replaced
+            agents[0] = new Agent(test[0], Color.Blue, '0');
+            boxes[0] = new Box(test[1], Color.Blue, 'A');
             goals[test[2].row][test[2].col] = 'A';  //Box goal
             if(test[3].row >= 0) goals[test[3].row][test[3].col] = '0';
             Problem problem = new Problem(Arrays.asList(agents), Arrays.asList(boxes), walls, goals).precompute();
@@ -0,0 +1,51 @@
+package dtu.aimas;
+
+import static dtu.aimas.helpers.LevelSolver.assertSameMakespanAsAStar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.LevelSolver;
+import dtu.aimas.search.solvers.graphsearch.IDAStar;
+import dtu.aimas.search.solvers.graphsearch.SMAStar;
+import dtu.aimas.search.solvers.heuristics.CorridorBoundCost;
+import dtu.aimas.search.solvers.heuristics.GoalCount;
+
+public class MemoryBoundedSolversTest {
+    @Test
+    public void IDAStar_MAPF00() {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar("MAPF00", cost, new IDAStar(cost));
+    }
+
+    @Test
+    public void IDAStar_SAsimple2() {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar("SAsimple2", cost, new IDAStar(cost));
+    }
+
+    @Test
+    public void SMAStar_MAPF00() {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar("MAPF00", cost, new SMAStar(cost));
+    }
+
+    @Test
+    public void SMAStar_SmallBudget_MAPF00() {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar("MAPF00", cost, new SMAStar(cost, 200));
+    }
+
+    @Test
+    public void SMAStar_SmallBudget_SAsimple2() {
+        var cost = new CorridorBoundCost();
+        assertSameMakespanAsAStar("SAsimple2", cost, new SMAStar(cost, 1000));
+    }
+
+    @Test
+    public void SMAStar_BudgetTooSmall_Should_Fail() {
+        var solution = LevelSolver.solve("SAsimple1", IO.LevelDir, new SMAStar(new GoalCount(), 3));
+        Assert.assertTrue(solution.isError());
+    }
+}
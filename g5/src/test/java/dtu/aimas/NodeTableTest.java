@@ -0,0 +1,78 @@
+package dtu.aimas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Box;
+import dtu.aimas.common.Color;
+import dtu.aimas.common.Position;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.solvers.graphsearch.NodeTable;
+import dtu.aimas.search.solvers.graphsearch.State;
+
+public class NodeTableTest {
+    private State initial() {
+        var agents = new ArrayList<>(List.of(new Agent(new Position(1, 1), Color.Red, '0')));
+        var boxes = new ArrayList<>(List.of(new Box(new Position(1, 3), Color.Red, 'A')));
+        return new State(agents, boxes);
+    }
+
+    private State move(State parent, int row, int col) {
+        var agents = new ArrayList<>(List.of(new Agent(new Position(row, col), Color.Red, '0')));
+        return new State(parent, agents, parent.boxes(), new Action[]{Action.MoveE});
+    }
+
+    @Test
+    public void NewStatesAreOffered() {
+        var nodes = new NodeTable(false, 16);
+        var root = initial();
+        Assert.assertTrue(nodes.offer(root));
+        Assert.assertFalse(nodes.offer(root));
+        Assert.assertTrue(nodes.offer(move(root, 1, 2)));
+        Assert.assertEquals(2, nodes.size());
+    }
+
+    @Test
+    public void CheaperPathReopensNode() {
+        var nodes = new NodeTable(false, 16);
+        var root = initial();
+        var expensive = move(move(root, 2, 1), 1, 2);
+        var cheap = move(root, 1, 2);
+
+        Assert.assertTrue(nodes.offer(expensive));
+        nodes.close(expensive);
+        Assert.assertEquals(1, nodes.closedCount());
+        Assert.assertTrue(nodes.isStale(expensive));
+
+        Assert.assertTrue("Smaller g should reopen the node", nodes.offer(cheap));
+        Assert.assertEquals(0, nodes.closedCount());
+        Assert.assertFalse(nodes.isStale(cheap));
+        Assert.assertFalse("Larger g should not replace the node", nodes.offer(expensive));
+    }
+
+    @Test
+    public void TimeDependentNodesKeepSteps() {
+        var nodes = new NodeTable(true, 16);
+        var root = initial();
+        Assert.assertTrue(nodes.offer(move(root, 1, 2)));
+        Assert.assertTrue(nodes.offer(move(move(root, 2, 1), 1, 2)));
+        Assert.assertEquals(2, nodes.size());
+    }
+
+    @Test
+    public void TableGrows() {
+        var nodes = new NodeTable(false, 1);
+        var root = initial();
+        for (var row = 0; row < 50; row++) {
+            for (var col = 0; col < 50; col++) {
+                Assert.assertTrue(nodes.offer(move(root, row, col)));
+            }
+        }
+        Assert.assertEquals(2500, nodes.size());
+        Assert.assertTrue(nodes.contains(move(root, 20, 30)));
+    }
+}
@@ -63,4 +63,18 @@ public class ProblemPositionCheckTests {
         Assert.assertEquals(false, problem.isDeadEnd(new Position(3,3)));
         Assert.assertEquals(false, problem.isDeadEnd(new Position(3,5)));
     }
+
+    @Test
+    public void positionsAreInterned() {
+        var position = Position.of(3, 7);
+        Assert.assertSame(position, Position.of(3, 7));
+        Assert.assertSame(position, Position.fromCell(Position.cell(3, 7)));
+        Assert.assertEquals(new Position(3, 7), position);
+        Assert.assertEquals(new Position(3, 7).hashCode(), position.hashCode());
+        Assert.assertNotEquals(Position.of(7, 3), position);
+
+        // far cells are not interned but still equal by value
+        Assert.assertEquals(Position.of(1000, 2), Position.of(1000, 2));
+        Assert.assertEquals(1000, Position.fromCell(Position.of(1000, 2).cell()).row);
+    }
 }
@@ -1,5 +1,6 @@
 package dtu.aimas;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Assert;
@@ -11,6 +12,7 @@ import dtu.aimas.common.Color;
 import dtu.aimas.common.Position;
 import dtu.aimas.parsers.ProblemParser;
 import dtu.aimas.search.Problem;
+import dtu.aimas.search.solvers.graphsearch.State;
 
 public class StateTest {
     private Problem makeProblem(List<Agent> agents, List<Box> boxes){
@@ -187,4 +189,133 @@ public class StateTest {
             Assert.fail("Agent and box was not found at expected positions");
         }
     }
+
+    @Test
+    public void PackedCellsMatchObjectView() {
+        var agent = new Agent(new Position(1, 1), Color.Red, '0');
+        var box = new Box(new Position(1, 2), Color.Red, 'A');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent), List.of(box))).get();
+        var initialState = stateSpace.initialState();
+
+        Assert.assertEquals(agent.pos.cell(), initialState.agentCell(0));
+        Assert.assertEquals(box.pos.cell(), initialState.boxCell(0));
+        Assert.assertEquals('A', initialState.boxLabel(0));
+        Assert.assertEquals(Color.Red, initialState.boxColor(0));
+
+        for(var state : stateSpace.expand(initialState)){
+            Assert.assertSame(initialState.getLayout(), state.getLayout());
+            Assert.assertEquals(Position.fromCell(state.agentCell(0)), state.agents().get(0).pos);
+            Assert.assertEquals(Position.fromCell(state.boxCell(0)), state.boxes().get(0).pos);
+        }
+    }
+
+    @Test
+    public void PackedCellRoundTrip() {
+        for(var position : List.of(new Position(0, 0), new Position(3, 7), new Position(120, 45))){
+            var cell = position.cell();
+            Assert.assertEquals(position.row, Position.rowOf(cell));
+            Assert.assertEquals(position.col, Position.colOf(cell));
+            Assert.assertEquals(position, Position.fromCell(cell));
+        }
+    }
+
+    @Test
+    public void OccupancyLookupAndOverlap() {
+        var agent0 = new Agent(new Position(1, 1), Color.Red, '0');
+        var agent1 = new Agent(new Position(3, 5), Color.Blue, '1');
+        var boxA = new Box(new Position(1, 2), Color.Red, 'A');
+        var boxB = new Box(new Position(2, 3), Color.Blue, 'B');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent0, agent1), List.of(boxA, boxB))).get();
+        var state = stateSpace.initialState();
+
+        Assert.assertEquals(1, state.agentSlotAt(agent1.pos.cell()));
+        Assert.assertEquals(-1, state.agentSlotAt(boxA.pos.cell()));
+        Assert.assertEquals(1, state.boxSlotAt(boxB.pos.cell()));
+        Assert.assertTrue(state.isOccupied(boxA.pos.cell()));
+        Assert.assertFalse(state.isOccupied(new Position(2, 2).cell()));
+        Assert.assertTrue(stateSpace.isValid(state));
+
+        var overlapping = new State(
+            new ArrayList<>(List.of(agent0, agent1)),
+            new ArrayList<>(List.of(boxA, new Box(new Position(3, 5), Color.Blue, 'B'))));
+        Assert.assertTrue(overlapping.hasOverlappingCells());
+        Assert.assertFalse(stateSpace.isValid(overlapping));
+    }
+
+    @Test
+    public void IncrementalZobristMatchesRecomputation() {
+        var agent = new Agent(new Position(1, 1), Color.Red, '0');
+        var box = new Box(new Position(1, 2), Color.Red, 'A');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent), List.of(box))).get();
+        var initialState = stateSpace.initialState();
+
+        for(var child : stateSpace.expand(initialState)){
+            var rebuilt = new State(initialState, child.agents(), child.boxes(), child.jointAction);
+            Assert.assertEquals(rebuilt.getZobrist(), child.getZobrist());
+            Assert.assertEquals(rebuilt, child);
+            Assert.assertEquals(rebuilt.hashCode(), child.hashCode());
+        }
+    }
+
+    @Test
+    public void EqualityComparesContents() {
+        var agent = new Agent(new Position(2, 2), Color.Red, '0');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent), List.of())).get();
+        var initialState = stateSpace.initialState();
+        var expanded = stateSpace.expand(initialState);
+
+        for(var state : expanded){
+            for(var other : expanded){
+                Assert.assertEquals(state == other, state.equals(other));
+            }
+            Assert.assertNotEquals(initialState, state);
+        }
+    }
+
+    @Test
+    public void DeterministicSuccessorsAreStable() {
+        var agent0 = new Agent(new Position(1, 1), Color.Red, '0');
+        var agent1 = new Agent(new Position(3, 3), Color.Blue, '1');
+        var box = new Box(new Position(1, 2), Color.Red, 'A');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent0, agent1), List.of(box))).get();
+        var initialState = stateSpace.initialState();
+
+        var first = new ArrayList<>(stateSpace.successors(true).expand(initialState));
+        var second = new ArrayList<>(stateSpace.successors(true).expand(initialState));
+        Assert.assertEquals(first, second);
+
+        var shuffled = stateSpace.expand(initialState);
+        Assert.assertEquals(first.size(), shuffled.size());
+        Assert.assertTrue(shuffled.containsAll(first));
+    }
+
+    @Test
+    public void OperatorDecompositionCommitsOneAgentAtATime() {
+        var agent0 = new Agent(new Position(2, 1), Color.Red, '0');
+        var agent1 = new Agent(new Position(2, 3), Color.Blue, '1');
+        var stateSpace = ProblemParser.parse(makeProblem(List.of(agent0, agent1), List.of())).get();
+        var initialState = stateSpace.initialState();
+        var generator = stateSpace.successors(true, true);
+
+        var intermediates = new ArrayList<>(generator.expand(initialState));
+        // agent 0 can noop or move in 3 directions, the wall blocks the 4th
+        Assert.assertEquals(4, intermediates.size());
+
+        var joint = new java.util.HashSet<>(stateSpace.expand(initialState));
+        var decomposed = new java.util.HashSet<State>();
+        for(var intermediate : intermediates){
+            Assert.assertTrue(intermediate.isIntermediate());
+            Assert.assertFalse(stateSpace.isGoalState(intermediate));
+            Assert.assertEquals(initialState.g(), intermediate.g());
+
+            for(var child : generator.expand(intermediate)){
+                Assert.assertFalse(child.isIntermediate());
+                Assert.assertSame(initialState, child.parent);
+                Assert.assertEquals(1, child.g());
+                decomposed.add(child);
+            }
+        }
+
+        Assert.assertEquals(joint, decomposed);
+    }
 }
@@ -6,11 +6,19 @@ import java.util.stream.Stream;
 import org.junit.Assert;
 import org.junit.Test;
 
+import static dtu.aimas.helpers.LevelHelper.getProblem;
+
 import dtu.aimas.common.Agent;
 import dtu.aimas.common.Box;
 import dtu.aimas.common.Color;
 import dtu.aimas.common.Position;
+import dtu.aimas.parsers.ProblemParser;
 import dtu.aimas.search.Problem;
+import dtu.aimas.search.solutions.StateSolution;
+import dtu.aimas.search.solvers.SolutionChecker;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
 
 public class SubProblemTest {
     
@@ -98,4 +106,66 @@ public class SubProblemTest {
             }
         }
     }
+
+    @Test
+    public void ImmovableBoxes_Become_Walls(){
+        var level = """
+                    #initial
+                    +++++++
+                    +0A B +
+                    + C   +
+                    +++++++
+                    #goal
+                    +++++++
+                    +  CB +
+                    +    A+
+                    +++++++
+                    #end
+                    """;
+        var problem = getProblem(level, "red:0,A", "blue:B,C");
+
+        var reduced = problem.withoutImmovableBoxes();
+        // B already satisfies its goal and C stands on none, both become walls and only B's goal is dropped
+        Assert.assertEquals(List.of('A'), reduced.boxes.stream().map(b -> b.label).toList());
+        Assert.assertTrue(reduced.walls[1][4]);
+        Assert.assertTrue(reduced.walls[2][2]);
+        Assert.assertEquals(0, reduced.goals[1][4]);
+        Assert.assertEquals('C', reduced.goals[1][3]);
+        Assert.assertEquals(problem.admissibleDist(new Position(1, 1), new Position(1, 5)) + 2,
+                reduced.admissibleDist(new Position(1, 1), new Position(1, 5)));
+        Assert.assertSame(reduced, reduced.withoutImmovableBoxes());
+    }
+
+    @Test
+    public void ImmovableBoxes_Keep_Plans(){
+        var level = """
+                    #initial
+                    +++++++
+                    +0A  B+
+                    +  B  +
+                    +++++++
+                    #goal
+                    +++++++
+                    +    B+
+                    +    A+
+                    +++++++
+                    #end
+                    """;
+        var problem = getProblem(level, "red:0,A", "blue:B");
+        var reduced = problem.withoutImmovableBoxes();
+        Assert.assertEquals(1, reduced.boxes.size());
+
+        var expected = new AStar(new DistanceSumCost()).solve(problem);
+        var actual = new AStar(new DistanceSumCost()).solve(reduced);
+        Assert.assertTrue(actual.isOk());
+        Assert.assertEquals(expected.get().getMakespan(), actual.get().getMakespan());
+        // replaying the plan on the original problem restores the immovable boxes
+        var space = ProblemParser.parse(problem).get();
+        var found = (StateSolution) actual.get();
+        var states = new State[found.size()];
+        states[0] = space.initialState();
+        for (var step = 1; step < states.length; step++)
+            states[step] = space.tryCreateState(states[step - 1], found.getState(step).jointAction).get();
+        Assert.assertTrue(SolutionChecker.validSolution(new StateSolution(states), space));
+    }
 }
@@ -11,6 +11,7 @@ public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(ArgumentParserBenchmark.class.getSimpleName())
+                .include(StateSpaceExpansionBenchmark.class.getSimpleName())
                 .timeUnit(TimeUnit.NANOSECONDS)
                 .mode(Mode.AverageTime)
                 .warmupIterations(1)
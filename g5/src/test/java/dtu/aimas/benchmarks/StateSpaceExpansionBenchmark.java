@@ -0,0 +1,139 @@
+package dtu.aimas.benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dtu.aimas.common.Position;
+import dtu.aimas.communication.IO;
+import dtu.aimas.helpers.FileHelper;
+import dtu.aimas.parsers.CourseLevelParser;
+import dtu.aimas.parsers.ProblemParser;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.graphsearch.StateSpace;
+import dtu.aimas.search.solvers.graphsearch.SuccessorGenerator;
+
+// Expansion of a sample of reachable states by the expansion StateSpace used before SuccessorGenerator, kept below as
+// a reference, by a new generator per state and by one generator for the whole sample. Every path keeps the
+// generated order, so shuffling does not weigh on one side only.
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class StateSpaceExpansionBenchmark {
+    private static final int SampleSize = 2000;
+
+    @Param({"MAPF01", "MAPF02"})
+    public String level;
+
+    private StateSpace space;
+    private SuccessorGenerator generator;
+    private List<State> states;
+
+    @Setup
+    public void setup() {
+        var problem = FileHelper.loadLevel(level, IO.LevelDir, CourseLevelParser.Instance).get();
+        space = ProblemParser.parse(problem).get();
+        generator = space.successors(true);
+
+        // breadth first sample of reachable states to expand
+        states = new ArrayList<>(SampleSize);
+        var seen = new HashSet<State>();
+        var queue = new ArrayDeque<State>();
+        queue.add(space.initialState());
+        while (!queue.isEmpty() && states.size() < SampleSize) {
+            var state = queue.poll();
+            states.add(state);
+            for (var child : generator.expand(state)) {
+                if (seen.add(child)) queue.add(child);
+            }
+        }
+    }
+
+    @Benchmark
+    public void ExpandWithPreviousExpansion(Blackhole blackhole) {
+        for (var state : states) blackhole.consume(previousExpand(state));
+    }
+
+    @Benchmark
+    public void ExpandWithNewGenerators(Blackhole blackhole) {
+        for (var state : states) blackhole.consume(space.successors(true).expand(state));
+    }
+
+    @Benchmark
+    public void ExpandWithReusedGenerator(Blackhole blackhole) {
+        for (var state : states) blackhole.consume(generator.expand(state));
+    }
+
+    // StateSpace.expand before SuccessorGenerator, without its shuffle: the time step is counted along the parents,
+    // applicable actions are listed per agent and every joint action is built and checked as a state
+    private ArrayList<State> previousExpand(State state) {
+        var timeStep = 1;
+        for (var iterator = state; iterator.parent != null; iterator = iterator.parent) timeStep++;
+
+        var agentsCount = state.agentCount();
+        var applicableActions = new Action[agentsCount][];
+        for (var agentId = 0; agentId < agentsCount; agentId++) {
+            var agentActions = new ArrayList<Action>(Action.values().length);
+            for (var action : Action.values()) {
+                if (isApplicable(state, agentId, action, timeStep)) agentActions.add(action);
+            }
+            if (agentActions.isEmpty()) return new ArrayList<>();
+            applicableActions[agentId] = agentActions.toArray(new Action[0]);
+        }
+
+        var jointAction = new Action[agentsCount];
+        var actionsPermutation = new int[agentsCount];
+        var expandedStates = new ArrayList<State>(16);
+        while (true) {
+            for (var i = 0; i < agentsCount; i++) jointAction[i] = applicableActions[i][actionsPermutation[i]];
+            space.tryCreateState(state, jointAction).ifPresent(expandedStates::add);
+
+            var done = false;
+            for (var i = 0; i < agentsCount; i++) {
+                if (actionsPermutation[i] < applicableActions[i].length - 1) {
+                    ++actionsPermutation[i];
+                    break;
+                }
+                actionsPermutation[i] = 0;
+                if (i == agentsCount - 1) done = true;
+            }
+            if (done) break;
+        }
+        return expandedStates;
+    }
+
+    private boolean isApplicable(State state, int slot, Action action, int timeStep) {
+        var label = state.agentLabel(slot);
+        var agentCell = state.agentCell(slot);
+        var agentDestination = move(agentCell, action.agentRowDelta, action.agentColDelta);
+        return switch (action.type) {
+            case NoOp -> space.problem().isFree(agentCell, label, timeStep);
+            case Move -> isCellFree(agentDestination, state, label, timeStep);
+            case Push -> {
+                var boxSlot = state.boxSlotAt(agentDestination);
+                if (boxSlot < 0 || state.boxColor(boxSlot) != state.agentColor(slot)) yield false;
+                var boxDestination = move(agentDestination, action.boxRowDelta, action.boxColDelta);
+                yield isCellFree(boxDestination, state, label, timeStep);
+            }
+            case Pull -> {
+                var boxSlot = state.boxSlotAt(move(agentCell, -action.boxRowDelta, -action.boxColDelta));
+                if (boxSlot < 0 || state.boxColor(boxSlot) != state.agentColor(slot)) yield false;
+                yield isCellFree(agentDestination, state, label, timeStep);
+            }
+        };
+    }
+
+    private boolean isCellFree(int cell, State state, char agentLabel, int timeStep) {
+        return !state.isOccupied(cell) && space.problem().isFree(cell, agentLabel, timeStep);
+    }
+
+    private static int move(int cell, int rowDelta, int colDelta) {
+        return Position.cell(Position.rowOf(cell) + rowDelta, Position.colOf(cell) + colDelta);
+    }
+}
@@ -0,0 +1,57 @@
+package dtu.aimas.helpers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import dtu.aimas.common.Agent;
+import dtu.aimas.common.Box;
+import dtu.aimas.common.Color;
+import dtu.aimas.common.Position;
+import dtu.aimas.search.Action;
+import dtu.aimas.search.solvers.graphsearch.State;
+import dtu.aimas.search.solvers.heuristics.DistanceSumCost;
+import dtu.aimas.search.solvers.heuristics.WAStarHeuristic;
+
+// Heuristic with a fixed f and h per state, for testing frontiers in isolation.
+// Every state puts its single agent on a cell of its own and is keyed by that cell, so a state rebuilt by a frontier
+// keeps its values. States are children of a shared root, so they can be rebuilt from their parent.
+public class FixedHeuristic extends WAStarHeuristic {
+    private final HashMap<Integer, int[]> values = new HashMap<>();
+    private final State root = new State(agentAt(0), new ArrayList<Box>());
+
+    public FixedHeuristic() {
+        this(1.0);
+    }
+
+    public FixedHeuristic(double w) {
+        super(new DistanceSumCost(), w);
+    }
+
+    public State state(int f) {
+        return state(f, 0);
+    }
+
+    public State state(int f, int h) {
+        var col = values.size() + 1;
+        var state = new State(root, agentAt(col), new ArrayList<Box>(), new Action[]{Action.NoOp});
+        values.put(Position.cell(1, col), new int[]{f, h});
+        return state;
+    }
+
+    public int f(State s) {
+        return values.get(key(s))[0];
+    }
+
+    public int h(State s) {
+        return values.get(key(s))[1];
+    }
+
+    private static int key(State s) {
+        return s.agents().get(0).pos.cell();
+    }
+
+    private static ArrayList<Agent> agentAt(int col) {
+        return new ArrayList<>(List.of(new Agent(new Position(1, col), Color.Red, '0')));
+    }
+}
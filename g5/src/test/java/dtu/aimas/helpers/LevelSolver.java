@@ -6,6 +6,8 @@ import dtu.aimas.parsers.CourseLevelParser;
 import dtu.aimas.parsers.LevelParser;
 import dtu.aimas.search.solutions.Solution;
 import dtu.aimas.search.solvers.Solver;
+import dtu.aimas.search.solvers.graphsearch.AStar;
+import dtu.aimas.search.solvers.heuristics.Cost;
 import org.junit.Assert;
 
 import java.nio.file.Path;
@@ -29,6 +31,16 @@ public class LevelSolver {
         return solve(levelName, directory, CourseLevelParser.Instance, solver, false);
     }
 
+    // A* is optimal with an admissible cost, so an optimal solver must match its makespan
+    public static void assertSameMakespanAsAStar(String levelName, Cost cost, Solver solver) {
+        Assert.assertTrue("The cost must be admissible", cost.isAdmissible());
+        var expected = solve(levelName, IO.LevelDir, new AStar(cost));
+        var actual = solve(levelName, IO.LevelDir, solver);
+        Assert.assertTrue(expected.toString(), expected.isOk());
+        Assert.assertTrue(actual.toString(), actual.isOk());
+        Assert.assertEquals(expected.get().getMakespan(), actual.get().getMakespan());
+    }
+
     public static void testMap(String levelName, Path directory, Solver solver){
         var solution = solve(levelName, directory ,solver);
         Assert.assertTrue(solution.toString(), solution.isOk());